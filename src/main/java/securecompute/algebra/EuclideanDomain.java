@@ -4,6 +4,7 @@ import com.google.auto.value.AutoValue;
 import securecompute.StreamUtils;
 
 import java.util.Objects;
+import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
 
 public interface EuclideanDomain<E> extends Ring<E> {
@@ -32,6 +33,11 @@ public interface EuclideanDomain<E> extends Ring<E> {
         return DivModResult.of(div(dividend, divisor), mod(dividend, divisor));
     }
 
+    // For repeated reduction by a fixed modulus, which implementations may speed up with some precomputation.
+    default UnaryOperator<E> reducer(E modulus) {
+        return x -> mod(x, modulus);
+    }
+
     default E gcd(E left, E right) {
         return gcdExt(left, right).getGcd();
     }
@@ -41,9 +47,7 @@ public interface EuclideanDomain<E> extends Ring<E> {
     }
 
     default GcdExtResult<E> gcdExt(E left, E right) {
-        PartialGcdExtResult<E> r = partialGcdExtResults(this, left, right)
-                .reduce((a, b) -> b)
-                .orElseThrow(RuntimeException::new);
+        PartialGcdExtResult<E> r = lastPartialGcdExtResult(left, right);
 
         E u = invSignum(r.left()), v = invSignum(u);
         E s = product(r.oddStep() ? r.s() : negative(r.s()), v);
@@ -60,6 +64,34 @@ public interface EuclideanDomain<E> extends Ring<E> {
         return GcdExtResult.of(x, y, gcd, t, s);
     }
 
+    // The last of the 'partialGcdExtResults' (with zero on the right), which implementations may find faster.
+    default PartialGcdExtResult<E> lastPartialGcdExtResult(E left, E right) {
+        return lastPartialGcdExtResult(this, PartialGcdExtResult.of(one(), zero(), zero(), one(), left, right, false));
+    }
+
+    // Runs the extended Euclidean algorithm to completion from the given partial result, without materialising the
+    // intermediate results.
+    static <E> PartialGcdExtResult<E> lastPartialGcdExtResult(EuclideanDomain<E> ring, PartialGcdExtResult<E> r) {
+        E x = r.x(), y = r.y(), s = r.s(), t = r.t(), left = r.left(), right = r.right();
+        boolean oddStep = r.oddStep();
+        if (ring.size(right) == 0) {
+            return r;
+        }
+        do {
+            DivModResult<? extends E> divModResult = ring.divMod(left, right);
+            E q = divModResult.getQuotient();
+            E s0 = ring.difference(x, ring.product(s, q)), t0 = ring.difference(y, ring.product(t, q));
+            x = s;
+            y = t;
+            s = s0;
+            t = t0;
+            left = right;
+            right = divModResult.getRemainder();
+            oddStep = !oddStep;
+        } while (ring.size(right) != 0);
+        return PartialGcdExtResult.of(x, y, s, t, left, right, oddStep);
+    }
+
     static <E> Stream<PartialGcdExtResult<E>> partialGcdExtResults(EuclideanDomain<E> ring, E left, E right) {
         E zero = ring.zero(), one = ring.one();
         return StreamUtils.iterate(PartialGcdExtResult.of(one, zero, zero, one, left, right, false), Objects::nonNull, r -> {
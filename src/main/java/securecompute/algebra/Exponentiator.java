@@ -0,0 +1,96 @@
+package securecompute.algebra;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * A fixed non-negative exponent, recoded once into a left-to-right sliding-window addition chain, so that it can be
+ * raised to repeatedly in any ring without re-scanning the bits of the exponent. Each power costs one squaring per bit
+ * and one multiplication per window (of up to {@code w} bits, chosen from the bit length), on top of a table of the
+ * {@code 2^(w-1)} odd powers below {@code 2^w}.
+ */
+public final class Exponentiator {
+    private static final int MAX_WINDOW_SIZE = 8;
+    // the shortest exponent for which Ring.power recodes rather than doing plain square-and-multiply
+    static final int MIN_RECODED_BIT_LENGTH = 32;
+
+    private final BigInteger exponent;
+    private final int tableSize;
+    private final int[] squarings; // squarings to do before multiplying in each window
+    private final int[] windows; // indices into the table of odd powers: window value (2 * i + 1) -> i
+    private final int trailingSquarings;
+
+    public Exponentiator(BigInteger exponent) {
+        if (exponent.signum() < 0) {
+            throw new ArithmeticException("Negative exponent");
+        }
+        this.exponent = exponent;
+
+        int len = exponent.bitLength(), w = windowSize(len);
+        int[] squarings = new int[len], windows = new int[len];
+        int windowCount = 0, pendingSquarings = 0, maxWindow = 0;
+        for (int i = len - 1; i >= 0; ) {
+            if (!exponent.testBit(i)) {
+                pendingSquarings++;
+                i--;
+                continue;
+            }
+            int j = Math.max(i - w + 1, 0);
+            while (!exponent.testBit(j)) {
+                j++;
+            }
+            int window = 0;
+            for (int k = i; k >= j; k--) {
+                window = window << 1 | (exponent.testBit(k) ? 1 : 0);
+            }
+            squarings[windowCount] = windowCount > 0 ? pendingSquarings + i - j + 1 : 0;
+            windows[windowCount++] = window >>> 1;
+            maxWindow = Math.max(maxWindow, window >>> 1);
+            pendingSquarings = 0;
+            i = j - 1;
+        }
+        this.squarings = Arrays.copyOf(squarings, windowCount);
+        this.windows = Arrays.copyOf(windows, windowCount);
+        trailingSquarings = pendingSquarings;
+        tableSize = maxWindow + 1;
+    }
+
+    // minimises the approximate multiplication count 2^(w-1) + len / (w + 1), given len squarings
+    private static int windowSize(int bitLength) {
+        int w = 1;
+        while (w < MAX_WINDOW_SIZE && (1 << w) + bitLength / (w + 2.0) < (1 << w - 1) + bitLength / (w + 1.0)) {
+            w++;
+        }
+        return w;
+    }
+
+    public BigInteger getExponent() {
+        return exponent;
+    }
+
+    public <E> E power(Ring<E> ring, E elt) {
+        if (windows.length == 0) {
+            return ring.one();
+        }
+        @SuppressWarnings("unchecked")
+        E[] oddPowers = (E[]) new Object[tableSize];
+        oddPowers[0] = elt;
+        if (tableSize > 1) {
+            E eltSquared = ring.product(elt, elt);
+            for (int i = 1; i < tableSize; i++) {
+                oddPowers[i] = ring.product(oddPowers[i - 1], eltSquared);
+            }
+        }
+        E acc = oddPowers[windows[0]];
+        for (int i = 1; i < windows.length; i++) {
+            for (int j = 0; j < squarings[i]; j++) {
+                acc = ring.product(acc, acc);
+            }
+            acc = ring.product(acc, oddPowers[windows[i]]);
+        }
+        for (int j = 0; j < trailingSquarings; j++) {
+            acc = ring.product(acc, acc);
+        }
+        return acc;
+    }
+}
@@ -1,8 +1,13 @@
 package securecompute.algebra;
 
+import com.google.common.collect.ImmutableList;
+
 import java.math.BigInteger;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.google.common.base.Preconditions.checkArgument;
 
 public interface Field<E> extends Ring<E> {
 
@@ -38,20 +43,40 @@ public interface Field<E> extends Ring<E> {
 
     // uses Montgomery's trick to perform a batch inversion from a single inversion op
     static <E> List<E> reciprocals(Field<E> field, List<E> elements) {
-        List<E> result = new ArrayList<>(elements.size());
+        int n = elements.size();
+        @SuppressWarnings("unchecked")
+        E[] result = (E[]) new Object[n];
+        boolean[] isOne = new boolean[n];
         E one = field.one(), prod = one;
-        for (E elt : elements) {
-            result.add(prod);
-            prod = elt == one ? prod : field.product(prod, elt);
+        for (int i = 0; i < n; i++) {
+            E elt = elements.get(i);
+            result[i] = prod;
+            isOne[i] = one.equals(elt);
+            prod = isOne[i] ? prod : field.product(prod, elt);
         }
         prod = field.reciprocal(prod);
-        for (int i = elements.size(); i-- > 0; ) {
-            E elt = elements.get(i);
-            result.set(i, elt == one ? one : field.product(result.get(i), prod));
-            if (i > 0) {
-                prod = elt == one ? prod : field.product(prod, elt);
+        for (int i = n; i-- > 0; ) {
+            if (isOne[i]) {
+                result[i] = one;
+            } else {
+                result[i] = field.product(result[i], prod);
+                prod = i > 0 ? field.product(prod, elements.get(i)) : prod;
             }
         }
-        return result;
+        return Arrays.asList(result);
+    }
+
+    // splits the batch into chunks inverted in parallel on the common fork-join pool, with one inversion op per chunk
+    static <E> List<E> reciprocals(Field<E> field, List<E> elements, int chunkSize) {
+        checkArgument(chunkSize > 0, "Chunk size must be positive: %s", chunkSize);
+        if (elements.size() <= chunkSize) {
+            return reciprocals(field, elements);
+        }
+        int chunkCount = (elements.size() + chunkSize - 1) / chunkSize;
+        return IntStream.range(0, chunkCount).parallel()
+                .mapToObj(i -> reciprocals(field,
+                        elements.subList(i * chunkSize, Math.min((i + 1) * chunkSize, elements.size()))))
+                .flatMap(List::stream)
+                .collect(ImmutableList.toImmutableList());
     }
 }
@@ -6,6 +6,7 @@ import securecompute.algebra.polynomial.FieldPolynomialRing;
 import securecompute.algebra.polynomial.Polynomial;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Objects;
 import java.util.Random;
@@ -18,14 +19,33 @@ public class Gf256 extends ShallowCopyable implements FiniteField<Gf256.Element>
     private final int irreduciblePolynomial, generator;
     private final byte[] logTable;
     private final byte[] expTable;
+    private final MultiplicationMode multiplicationMode;
+    private final byte[] productTable;
+    private final byte[] nibbleTable;
     private final Element[] elements = new Element[256];
 
+    /**
+     * The table lookup strategy used for multiplication of raw byte values (and so of elements).
+     * <p>
+     * {@link #LOG_EXP} needs no tables beyond the 766-byte log & exp tables, but costs a zero check and three lookups
+     * per multiply. {@link #SPLIT_NIBBLE} adds a pair of 16-entry tables for each constant multiplier (8 KiB in total),
+     * so that multiplication by a constant is two lookups with no branching. {@link #PRODUCT_TABLE} adds a full 64 KiB
+     * table of products, so that each multiply is a single lookup, at the cost of a larger cache footprint.
+     */
+    public enum MultiplicationMode {
+        LOG_EXP, SPLIT_NIBBLE, PRODUCT_TABLE
+    }
+
     public Gf256(int primitivePolynomial) {
         this(BooleanField.fromBinary(primitivePolynomial));
     }
 
     public Gf256(int irreduciblePolynomial, int generator) {
-        this(BooleanField.fromBinary(irreduciblePolynomial), BooleanField.fromBinary(generator));
+        this(irreduciblePolynomial, generator, MultiplicationMode.LOG_EXP);
+    }
+
+    public Gf256(int irreduciblePolynomial, int generator, MultiplicationMode multiplicationMode) {
+        this(BooleanField.fromBinary(irreduciblePolynomial), BooleanField.fromBinary(generator), multiplicationMode);
     }
 
     public Gf256(Polynomial<Boolean> primitivePolynomial) {
@@ -33,10 +53,16 @@ public class Gf256 extends ShallowCopyable implements FiniteField<Gf256.Element>
     }
 
     public Gf256(Polynomial<Boolean> irreduciblePolynomial, Polynomial<Boolean> generator) {
+        this(irreduciblePolynomial, generator, MultiplicationMode.LOG_EXP);
+    }
+
+    public Gf256(Polynomial<Boolean> irreduciblePolynomial, Polynomial<Boolean> generator,
+                 MultiplicationMode multiplicationMode) {
         this.irreduciblePolynomial = (int) BooleanField.toBinary(irreduciblePolynomial);
         this.generator = (int) BooleanField.toBinary(generator);
         this.logTable = new byte[256];
         this.expTable = new byte[510];
+        this.multiplicationMode = multiplicationMode;
 
         FieldPolynomialRing<Boolean> polynomialRing = new FieldPolynomialRing<>(BooleanField.INSTANCE);
         QuotientField<Polynomial<Boolean>> quotientField = new QuotientField<>(polynomialRing, irreduciblePolynomial);
@@ -62,20 +88,57 @@ public class Gf256 extends ShallowCopyable implements FiniteField<Gf256.Element>
             backToBeginning = elt.equals(quotientField.one());
         }
 
+        productTable = multiplicationMode == MultiplicationMode.PRODUCT_TABLE ? productTable() : null;
+        nibbleTable = multiplicationMode == MultiplicationMode.SPLIT_NIBBLE ? nibbleTable() : null;
         Arrays.setAll(elements, n -> new Element((byte) n));
     }
 
-    private Gf256(int irreduciblePolynomial, int generator, byte[] logTable, byte[] expTable) {
-        this.irreduciblePolynomial = irreduciblePolynomial;
-        this.generator = generator;
-        this.logTable = logTable;
-        this.expTable = expTable;
+    private Gf256(Gf256 original, MultiplicationMode multiplicationMode) {
+        this.irreduciblePolynomial = original.irreduciblePolynomial;
+        this.generator = original.generator;
+        this.logTable = original.logTable;
+        this.expTable = original.expTable;
+        this.multiplicationMode = multiplicationMode;
+        productTable = multiplicationMode == original.multiplicationMode ? original.productTable
+                : multiplicationMode == MultiplicationMode.PRODUCT_TABLE ? productTable() : null;
+        nibbleTable = multiplicationMode == original.multiplicationMode ? original.nibbleTable
+                : multiplicationMode == MultiplicationMode.SPLIT_NIBBLE ? nibbleTable() : null;
         Arrays.setAll(elements, n -> new Element((byte) n));
     }
 
     @Override
     protected Gf256 shallowCopy() {
-        return new Gf256(irreduciblePolynomial, generator, logTable, expTable);
+        return new Gf256(this, multiplicationMode);
+    }
+
+    public Gf256 withMultiplicationMode(MultiplicationMode multiplicationMode) {
+        return multiplicationMode == this.multiplicationMode ? this : new Gf256(this, multiplicationMode);
+    }
+
+    public MultiplicationMode getMultiplicationMode() {
+        return multiplicationMode;
+    }
+
+    private byte logExpProduct(int left, int right) {
+        return left == 0 || right == 0 ? 0 : expTable[(logTable[left] & 0xff) + (logTable[right] & 0xff)];
+    }
+
+    // row-major table of all products x * y, indexed by x << 8 | y
+    private byte[] productTable() {
+        byte[] table = new byte[65536];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = logExpProduct(i >> 8, i & 0xff);
+        }
+        return table;
+    }
+
+    // for each constant c, a 16-entry table of c * n followed by a 16-entry table of c * (n << 4), for all nibbles n
+    private byte[] nibbleTable() {
+        byte[] table = new byte[8192];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = logExpProduct(i >> 5, (i & 16) == 0 ? i & 15 : (i & 15) << 4);
+        }
+        return table;
     }
 
     @Override
@@ -110,10 +173,7 @@ public class Gf256 extends ShallowCopyable implements FiniteField<Gf256.Element>
     @Override
     public Element reciprocalOrZero(Element elt) {
         checkArgument(equals(elt.getField()), "Field mismatch");
-        if (elt.value == 0) {
-            return zero();
-        }
-        return exp(255 - log(elt));
+        return element(recipOrZero(elt.value));
     }
 
     @Override
@@ -132,10 +192,7 @@ public class Gf256 extends ShallowCopyable implements FiniteField<Gf256.Element>
     public Element product(Element left, Element right) {
         checkArgument(equals(left.getField()), "LHS field mismatch");
         checkArgument(equals(right.getField()), "RHS field mismatch");
-        if (left.value == 0 || right.value == 0) {
-            return zero();
-        }
-        return exp(log(left) + log(right));
+        return element(multiply(left.value, right.value));
     }
 
     @Override
@@ -148,6 +205,159 @@ public class Gf256 extends ShallowCopyable implements FiniteField<Gf256.Element>
         return elements[(int) value & 0xff];
     }
 
+    // Primitive (unboxed) arithmetic on raw byte values, for bulk processing of whole rows of symbols. These perform
+    // no field checks and allocate nothing, so they are considerably faster than the corresponding 'Element' ops.
+
+    public byte multiply(byte left, byte right) {
+        if (productTable != null) {
+            return productTable[(left & 0xff) << 8 | right & 0xff];
+        }
+        if (nibbleTable != null) {
+            int offset = (left & 0xff) << 5;
+            return (byte) (nibbleTable[offset | right & 15] ^ nibbleTable[offset | 16 | (right & 0xff) >> 4]);
+        }
+        return logExpProduct(left & 0xff, right & 0xff);
+    }
+
+    public byte recipOrZero(byte value) {
+        return value == 0 ? 0 : expTable[255 - (logTable[value & 0xff] & 0xff)];
+    }
+
+    // in-place batch inversion: with log/exp tables to hand, this is cheaper element by element than by Montgomery's trick
+    public void recipOrZero(byte[] values) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = recipOrZero(values[i]);
+        }
+    }
+
+    public void addInto(byte[] dst, byte[] left, byte[] right) {
+        int n = checkLengths(dst.length, left.length, right.length);
+        for (int i = 0; i < n; i++) {
+            dst[i] = (byte) (left[i] ^ right[i]);
+        }
+    }
+
+    public void mulInto(byte[] dst, byte[] left, byte[] right) {
+        int n = checkLengths(dst.length, left.length, right.length);
+        if (productTable != null) {
+            for (int i = 0; i < n; i++) {
+                dst[i] = productTable[(left[i] & 0xff) << 8 | right[i] & 0xff];
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                dst[i] = multiply(left[i], right[i]);
+            }
+        }
+    }
+
+    public void mulScalar(byte[] dst, byte[] src, byte coefficient) {
+        int n = checkLengths(dst.length, src.length);
+        if (coefficient == 0) {
+            Arrays.fill(dst, (byte) 0);
+        } else if (productTable != null) {
+            int offset = (coefficient & 0xff) << 8;
+            for (int i = 0; i < n; i++) {
+                dst[i] = productTable[offset | src[i] & 0xff];
+            }
+        } else if (nibbleTable != null) {
+            int offset = (coefficient & 0xff) << 5;
+            for (int i = 0; i < n; i++) {
+                int x = src[i] & 0xff;
+                dst[i] = (byte) (nibbleTable[offset | x & 15] ^ nibbleTable[offset | 16 | x >> 4]);
+            }
+        } else {
+            int logCoefficient = logTable[coefficient & 0xff] & 0xff;
+            for (int i = 0; i < n; i++) {
+                byte x = src[i];
+                dst[i] = x == 0 ? 0 : expTable[(logTable[x & 0xff] & 0xff) + logCoefficient];
+            }
+        }
+    }
+
+    public void mulScalarAdd(byte[] dst, byte[] src, byte coefficient) {
+        int n = checkLengths(dst.length, src.length);
+        if (coefficient == 0) {
+            return;
+        }
+        if (productTable != null) {
+            int offset = (coefficient & 0xff) << 8;
+            for (int i = 0; i < n; i++) {
+                dst[i] ^= productTable[offset | src[i] & 0xff];
+            }
+        } else if (nibbleTable != null) {
+            int offset = (coefficient & 0xff) << 5;
+            for (int i = 0; i < n; i++) {
+                int x = src[i] & 0xff;
+                dst[i] ^= nibbleTable[offset | x & 15] ^ nibbleTable[offset | 16 | x >> 4];
+            }
+        } else {
+            int logCoefficient = logTable[coefficient & 0xff] & 0xff;
+            for (int i = 0; i < n; i++) {
+                byte x = src[i];
+                if (x != 0) {
+                    dst[i] ^= expTable[(logTable[x & 0xff] & 0xff) + logCoefficient];
+                }
+            }
+        }
+    }
+
+    public byte dot(byte[] left, byte[] right) {
+        int n = checkLengths(left.length, right.length);
+        int acc = 0;
+        for (int i = 0; i < n; i++) {
+            acc ^= multiply(left[i], right[i]);
+        }
+        return (byte) acc;
+    }
+
+    // The ByteBuffer variants below act on the remaining bytes of each buffer, leaving all the buffer positions unchanged.
+
+    public void addInto(ByteBuffer dst, ByteBuffer left, ByteBuffer right) {
+        int n = checkLengths(dst.remaining(), left.remaining(), right.remaining());
+        int d = dst.position(), l = left.position(), r = right.position();
+        for (int i = 0; i < n; i++) {
+            dst.put(d + i, (byte) (left.get(l + i) ^ right.get(r + i)));
+        }
+    }
+
+    public void mulScalar(ByteBuffer dst, ByteBuffer src, byte coefficient) {
+        int n = checkLengths(dst.remaining(), src.remaining());
+        int d = dst.position(), s = src.position();
+        for (int i = 0; i < n; i++) {
+            dst.put(d + i, multiply(src.get(s + i), coefficient));
+        }
+    }
+
+    public void mulScalarAdd(ByteBuffer dst, ByteBuffer src, byte coefficient) {
+        int n = checkLengths(dst.remaining(), src.remaining());
+        if (coefficient == 0) {
+            return;
+        }
+        int d = dst.position(), s = src.position();
+        for (int i = 0; i < n; i++) {
+            dst.put(d + i, (byte) (dst.get(d + i) ^ multiply(src.get(s + i), coefficient)));
+        }
+    }
+
+    public byte dot(ByteBuffer left, ByteBuffer right) {
+        int n = checkLengths(left.remaining(), right.remaining());
+        int l = left.position(), r = right.position();
+        int acc = 0;
+        for (int i = 0; i < n; i++) {
+            acc ^= multiply(left.get(l + i), right.get(r + i));
+        }
+        return (byte) acc;
+    }
+
+    private static int checkLengths(int length, int otherLength) {
+        checkArgument(length == otherLength, "Array length mismatch: %s != %s", length, otherLength);
+        return length;
+    }
+
+    private static int checkLengths(int length, int otherLength1, int otherLength2) {
+        return checkLengths(checkLengths(length, otherLength1), otherLength2);
+    }
+
     @Override
     public boolean equals(Object o) {
         return this == o || o instanceof Gf256 && (o.getClass().isAssignableFrom(getClass()) ?
@@ -3,9 +3,9 @@ package securecompute.algebra;
 import securecompute.ShallowCopyable;
 
 import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.Random;
-import java.util.stream.IntStream;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
@@ -15,9 +15,11 @@ public class Gf65536 extends ShallowCopyable implements FiniteField<Gf65536.Elem
     private final Gf256 baseField;
     private final Gf256.Element a, b;
 
-    private final Gf65536.Element zero = new Element((byte) 0, (byte) 0);
-    private final Gf65536.Element one = new Element((byte) 1, (byte) 0);
-    private final Gf65536.Element primitiveElement = new Element((byte) 0, (byte) 1);
+    // Elements are packed into 16-bit values as lsb | msb << 8, where the quadratic extension is taken to be generated
+    // by the root X of the polynomial X^2 + bX + a. Multiplication then goes through the following 128 KiB tables.
+    private final char[] logTable;
+    private final char[] expTable;
+    private final Element[] elements = new Element[65536];
 
     public Gf65536(Gf256 baseField, long aValue, long bValue) {
         this(baseField.element(aValue), baseField.element(bValue));
@@ -28,22 +30,51 @@ public class Gf65536 extends ShallowCopyable implements FiniteField<Gf65536.Elem
         checkArgument(baseField.equals(b.getField()), "Coefficients come from different fields");
         this.a = a;
         this.b = b;
-        int order = order(primitiveElement);
+        this.logTable = new char[65536];
+        this.expTable = new char[65535];
+
+        int order = fillTables();
         checkArgument(order > 0, "Invalid quadratic extension: generator is reducible (a == 0 or b == 0)");
         checkArgument(order > 255, "Generator is reducible: got order %s", order);
         checkArgument(order == 65535, "Generator is not primitive: got order %s", order);
+
+        Arrays.setAll(elements, n -> new Element((short) n));
+    }
+
+    private Gf65536(Gf65536 original) {
+        this.baseField = original.baseField;
+        this.a = original.a;
+        this.b = original.b;
+        this.logTable = original.logTable;
+        this.expTable = original.expTable;
+        Arrays.setAll(elements, n -> new Element((short) n));
     }
 
-    private int order(Element elt) {
-        return one.equals(elt.pow(65535)) ? IntStream.of(3, 5, 17, 257)
-                .map(n -> 65535 / n)
-                .filter(n -> one.equals(elt.pow(n)))
-                .reduce(65535, IntegerRing.INSTANCE::gcd) : 0;
+    // Walks the powers of X, returning its order if that divides 65535 and zero otherwise (which includes the case that
+    // X is a zero divisor, so that its powers never return to one).
+    private int fillTables() {
+        byte aValue = a.getValue(), bValue = b.getValue();
+        int value = 1;
+        for (int i = 0; i < 65535; i++) {
+            expTable[i] = (char) value;
+            logTable[value] = (char) i;
+
+            // multiply by X, using X^2 == -bX - a == bX + a (in characteristic two):
+            byte lsb = (byte) value, msb = (byte) (value >> 8);
+            byte newLsb = baseField.multiply(msb, aValue);
+            byte newMsb = (byte) (lsb ^ baseField.multiply(msb, bValue));
+            value = newLsb & 0xff | (newMsb & 0xff) << 8;
+
+            if (value == 1) {
+                return 65535 % (i + 1) == 0 ? i + 1 : 0;
+            }
+        }
+        return 0;
     }
 
     @Override
     protected Gf65536 shallowCopy() {
-        return new Gf65536(a, b);
+        return new Gf65536(this);
     }
 
     @Override
@@ -53,59 +84,61 @@ public class Gf65536 extends ShallowCopyable implements FiniteField<Gf65536.Elem
 
     @Override
     public Element getPrimitiveElement() {
-        return primitiveElement;
+        return elements[0x100];
+    }
+
+    @Override
+    public Element exp(int n) {
+        return elements[expTable[Math.floorMod(n, 65535)]];
+    }
+
+    @Override
+    public int log(Element elt) {
+        checkArgument(equals(elt.getField()), "Field mismatch");
+        if (elt.value == 0) {
+            throw new ArithmeticException("Logarithm of zero");
+        }
+        return logTable[elt.value & 0xffff];
     }
 
     @Override
     public Element sampleUniformly(Random random) {
-        int value = random.nextInt(65536);
-        return element(baseField.element(value & 255), baseField.element(value >> 8));
+        return element(random.nextInt(65536));
     }
 
     @Override
     public Element reciprocalOrZero(Element elt) {
         checkArgument(equals(elt.getField()), "Field mismatch");
-        Gf256.Element x1 = elt.getLsb(), x2 = elt.getMsb(), y = x1.subtract(x2.multiply(b));
-        Gf256.Element invNorm = x1.multiply(y).add(x2.multiply(x2).multiply(a)).recipOrZero();
-        return element(y.multiply(invNorm), x2.negate().multiply(invNorm));
+        return element(recipOrZero(elt.value));
     }
 
     @Override
     public Element fromBigInteger(BigInteger n) {
-        return element(baseField.fromBigInteger(n), baseField.zero());
+        return element(n.testBit(0) ? 1 : 0);
     }
 
     @Override
     public Element zero() {
-        return zero;
+        return elements[0];
     }
 
     @Override
     public Element one() {
-        return one;
+        return elements[1];
     }
 
     @Override
     public Element sum(Element left, Element right) {
         checkArgument(equals(left.getField()), "LHS field mismatch");
         checkArgument(equals(right.getField()), "RHS field mismatch");
-
-        Gf256.Element x1 = left.getLsb(), x2 = left.getMsb();
-        Gf256.Element y1 = right.getLsb(), y2 = right.getMsb();
-
-        return element(x1.add(y1), x2.add(y2));
+        return element(left.value ^ right.value);
     }
 
     @Override
     public Element product(Element left, Element right) {
         checkArgument(equals(left.getField()), "LHS field mismatch");
         checkArgument(equals(right.getField()), "RHS field mismatch");
-
-        Gf256.Element x1 = left.getLsb(), x2 = left.getMsb();
-        Gf256.Element y1 = right.getLsb(), y2 = right.getMsb();
-        Gf256.Element z1 = x1.multiply(y1), z2 = x1.multiply(y2).add(x2.multiply(y1)), z3 = x2.multiply(y2);
-
-        return element(z1.subtract(z3.multiply(a)), z2.subtract(z3.multiply(b)));
+        return element(multiply(left.value, right.value));
     }
 
     @Override
@@ -117,7 +150,90 @@ public class Gf65536 extends ShallowCopyable implements FiniteField<Gf65536.Elem
     public Element element(Gf256.Element lsb, Gf256.Element msb) {
         checkArgument(baseField.equals(lsb.getField()), "LSB coefficients come from the wrong field");
         checkArgument(baseField.equals(msb.getField()), "MSB coefficients come from the wrong field");
-        return new Element(lsb.getValue(), msb.getValue());
+        return element(lsb.getValue() & 0xff | (msb.getValue() & 0xff) << 8);
+    }
+
+    public Element element(long value) {
+        return elements[(int) value & 0xffff];
+    }
+
+    // Primitive (unboxed) arithmetic on packed 16-bit values, for bulk processing of whole rows of symbols. As with the
+    // corresponding Gf256 methods, these perform no field checks and allocate nothing.
+
+    public short multiply(short left, short right) {
+        if (left == 0 || right == 0) {
+            return 0;
+        }
+        int n = logTable[left & 0xffff] + logTable[right & 0xffff];
+        return (short) expTable[n < 65535 ? n : n - 65535];
+    }
+
+    public short recipOrZero(short value) {
+        return value == 0 ? 0 : (short) expTable[(65535 - logTable[value & 0xffff]) % 65535];
+    }
+
+    public void recipOrZero(short[] values) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = recipOrZero(values[i]);
+        }
+    }
+
+    public void addInto(short[] dst, short[] left, short[] right) {
+        int n = checkLengths(dst.length, left.length, right.length);
+        for (int i = 0; i < n; i++) {
+            dst[i] = (short) (left[i] ^ right[i]);
+        }
+    }
+
+    public void mulScalar(short[] dst, short[] src, short coefficient) {
+        int n = checkLengths(dst.length, src.length);
+        if (coefficient == 0) {
+            Arrays.fill(dst, (short) 0);
+            return;
+        }
+        int logCoefficient = logTable[coefficient & 0xffff];
+        for (int i = 0; i < n; i++) {
+            short x = src[i];
+            if (x == 0) {
+                dst[i] = 0;
+            } else {
+                int m = logTable[x & 0xffff] + logCoefficient;
+                dst[i] = (short) expTable[m < 65535 ? m : m - 65535];
+            }
+        }
+    }
+
+    public void mulScalarAdd(short[] dst, short[] src, short coefficient) {
+        int n = checkLengths(dst.length, src.length);
+        if (coefficient == 0) {
+            return;
+        }
+        int logCoefficient = logTable[coefficient & 0xffff];
+        for (int i = 0; i < n; i++) {
+            short x = src[i];
+            if (x != 0) {
+                int m = logTable[x & 0xffff] + logCoefficient;
+                dst[i] ^= expTable[m < 65535 ? m : m - 65535];
+            }
+        }
+    }
+
+    public short dot(short[] left, short[] right) {
+        int n = checkLengths(left.length, right.length);
+        int acc = 0;
+        for (int i = 0; i < n; i++) {
+            acc ^= multiply(left[i], right[i]);
+        }
+        return (short) acc;
+    }
+
+    private static int checkLengths(int length, int otherLength) {
+        checkArgument(length == otherLength, "Array length mismatch: %s != %s", length, otherLength);
+        return length;
+    }
+
+    private static int checkLengths(int length, int otherLength1, int otherLength2) {
+        return checkLengths(checkLengths(length, otherLength1), otherLength2);
     }
 
     @Override
@@ -133,19 +249,22 @@ public class Gf65536 extends ShallowCopyable implements FiniteField<Gf65536.Elem
 
     public final class Element implements FieldElement<Element> {
 
-        private final byte lsb, msb;
+        private final short value;
+
+        private Element(short value) {
+            this.value = value;
+        }
 
-        private Element(byte lsb, byte msb) {
-            this.lsb = lsb;
-            this.msb = msb;
+        public short getValue() {
+            return value;
         }
 
         public Gf256.Element getLsb() {
-            return baseField.element(lsb);
+            return baseField.element(value);
         }
 
         public Gf256.Element getMsb() {
-            return baseField.element(msb);
+            return baseField.element(value >> 8);
         }
 
         @Override
@@ -161,12 +280,12 @@ public class Gf65536 extends ShallowCopyable implements FiniteField<Gf65536.Elem
         @Override
         public boolean equals(Object obj) {
             return this == obj || obj instanceof Element && getField().equals(((Element) obj).getField()) &&
-                    lsb == ((Element) obj).lsb && msb == ((Element) obj).msb;
+                    value == ((Element) obj).value;
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(getField(), lsb, msb);
+            return Objects.hash(getField(), value);
         }
 
         @Override
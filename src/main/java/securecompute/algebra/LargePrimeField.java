@@ -1,6 +1,7 @@
 package securecompute.algebra;
 
 import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSortedSet;
 
 import java.math.BigInteger;
@@ -19,6 +20,8 @@ public class LargePrimeField extends QuotientField<BigInteger> implements Finite
 
     private final Supplier<Coset> primitiveElement = Suppliers.memoize(this::findPrimitiveElement);
     private final Supplier<SortedSet<BigInteger>> totientCofactors;
+    private final Supplier<List<Exponentiator>> totientCofactorPowers =
+            Suppliers.memoize(this::findTotientCofactorPowers);
 
     public LargePrimeField(BigInteger p) {
         this(p, true);
@@ -42,7 +45,7 @@ public class LargePrimeField extends QuotientField<BigInteger> implements Finite
         return new LargePrimeField(getIdealGenerator(), totientCofactors);
     }
 
-    private static BigInteger checkPrime(BigInteger p) {
+    static BigInteger checkPrime(BigInteger p) {
         checkArgument(p.isProbablePrime(20), "Not a prime: %s", p);
         return p;
     }
@@ -54,7 +57,7 @@ public class LargePrimeField extends QuotientField<BigInteger> implements Finite
                 .orElseThrow(RuntimeException::new);
     }
 
-    private static SortedSet<BigInteger> getPrimeCofactors(BigInteger n, List<BigInteger> primeFactors) {
+    static SortedSet<BigInteger> getPrimeCofactors(BigInteger n, List<BigInteger> primeFactors) {
         BigInteger product = primeFactors.stream().reduce(ONE, BigInteger::multiply);
         checkArgument(product.equals(n), "Unexpected prime factor product: %s", product);
 
@@ -65,7 +68,7 @@ public class LargePrimeField extends QuotientField<BigInteger> implements Finite
     }
 
     // only works if n has at most 1 large prime factor
-    private static SortedSet<BigInteger> findPrimeCofactors(BigInteger n) {
+    static SortedSet<BigInteger> findPrimeCofactors(BigInteger n) {
         ImmutableSortedSet.Builder<BigInteger> cofactors = ImmutableSortedSet.reverseOrder();
 
         BigInteger d = n;
@@ -83,8 +86,12 @@ public class LargePrimeField extends QuotientField<BigInteger> implements Finite
         return cofactors.build();
     }
 
+    private List<Exponentiator> findTotientCofactorPowers() {
+        return totientCofactors.get().stream().map(Exponentiator::new).collect(ImmutableList.toImmutableList());
+    }
+
     private boolean isPrimitive(Coset unit) {
-        return totientCofactors.get().stream().noneMatch(n -> unit.pow(n).equals(one()));
+        return totientCofactorPowers.get().stream().noneMatch(e -> e.power(this, unit).equals(one()));
     }
 
     @Override
@@ -0,0 +1,385 @@
+package securecompute.algebra;
+
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import securecompute.ShallowCopyable;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.math.BigInteger.ONE;
+
+/**
+ * A prime field of fixed width, with elements held as arrays of 32-bit limbs in Montgomery form. It is a drop-in
+ * replacement for {@link LargePrimeField} (for odd primes), where each sum or product allocates just the limbs of the
+ * result (and its wrapper) instead of several intermediate {@link BigInteger}s, a division and a wrapping coset.
+ * <p>
+ * Sums, differences and Montgomery products run in time depending only on the width of the prime, with the final
+ * conditional subtraction done by masking rather than branching. Inversion and conversion to & from big integers are
+ * not constant time.
+ */
+public class MontgomeryPrimeField extends ShallowCopyable implements FiniteField<MontgomeryPrimeField.Element> {
+
+    private static final long MASK = 0xffffffffL;
+
+    private final BigInteger p;
+    private final int[] modulus;
+    private final int width;
+    private final int negInvModulus; // -p^-1 (mod 2^32)
+    private final int[] rSquared, rCubed; // R^2 & R^3 (mod p), where R = 2^(32 * width)
+    private final Element zero, one;
+    private final Supplier<Element> primitiveElement = Suppliers.memoize(this::findPrimitiveElement);
+    private final Supplier<SortedSet<BigInteger>> totientCofactors;
+    private final Supplier<List<Exponentiator>> totientCofactorPowers =
+            Suppliers.memoize(this::findTotientCofactorPowers);
+
+    public MontgomeryPrimeField(BigInteger p) {
+        this(p, true);
+    }
+
+    public MontgomeryPrimeField(BigInteger p, boolean checkPrime) {
+        this(checkPrime ? LargePrimeField.checkPrime(p) : p,
+                Suppliers.memoize(() -> LargePrimeField.findPrimeCofactors(p.subtract(ONE))));
+    }
+
+    public MontgomeryPrimeField(BigInteger p, List<BigInteger> totientPrimeFactors) {
+        this(LargePrimeField.checkPrime(p),
+                Suppliers.ofInstance(LargePrimeField.getPrimeCofactors(p.subtract(ONE), totientPrimeFactors)));
+    }
+
+    private MontgomeryPrimeField(BigInteger p, Supplier<SortedSet<BigInteger>> totientCofactors) {
+        checkArgument(p.testBit(0) && p.bitLength() > 1, "Modulus must be an odd prime: %s", p);
+        this.p = p;
+        this.totientCofactors = totientCofactors;
+        width = (p.bitLength() + 31) / 32;
+        modulus = toLimbs(p, width);
+
+        int inv = 1; // Newton iteration for p^-1 (mod 2^32), doubling the number of correct bits each step
+        for (int i = 0; i < 5; i++) {
+            inv *= 2 - modulus[0] * inv;
+        }
+        negInvModulus = -inv;
+
+        BigInteger r = ONE.shiftLeft(32 * width);
+        rSquared = toLimbs(r.multiply(r).mod(p), width);
+        rCubed = toLimbs(r.multiply(r).multiply(r).mod(p), width);
+        zero = new Element(new int[width]);
+        one = new Element(toLimbs(r.mod(p), width));
+    }
+
+    private MontgomeryPrimeField(MontgomeryPrimeField original) {
+        this.p = original.p;
+        this.totientCofactors = original.totientCofactors;
+        this.width = original.width;
+        this.modulus = original.modulus;
+        this.negInvModulus = original.negInvModulus;
+        this.rSquared = original.rSquared;
+        this.rCubed = original.rCubed;
+        zero = new Element(original.zero.limbs);
+        one = new Element(original.one.limbs);
+    }
+
+    @Override
+    protected MontgomeryPrimeField shallowCopy() {
+        return new MontgomeryPrimeField(this);
+    }
+
+    private static int[] toLimbs(BigInteger n, int width) {
+        int[] limbs = new int[width];
+        for (int i = 0; i < width; i++) {
+            limbs[i] = n.shiftRight(32 * i).intValue();
+        }
+        return limbs;
+    }
+
+    private static BigInteger fromLimbs(int[] limbs) {
+        byte[] bytes = new byte[limbs.length * 4 + 1];
+        for (int i = 0; i < limbs.length; i++) {
+            int limb = limbs[i], offset = bytes.length - 4 * i;
+            bytes[offset - 1] = (byte) limb;
+            bytes[offset - 2] = (byte) (limb >>> 8);
+            bytes[offset - 3] = (byte) (limb >>> 16);
+            bytes[offset - 4] = (byte) (limb >>> 24);
+        }
+        return new BigInteger(bytes);
+    }
+
+    // CIOS Montgomery multiplication: returns x * y / R (mod p), for x, y < p. The running total is accumulated
+    // directly in the result limbs, with its top two limbs held in locals, so that nothing else need be allocated.
+    private int[] montgomeryProduct(int[] x, int[] y) {
+        int s = width;
+        int[] t = new int[s];
+        long top = 0, overflow;
+        for (int i = 0; i < s; i++) {
+            long yi = y[i] & MASK, c = 0;
+            for (int j = 0; j < s; j++) {
+                long u = (t[j] & MASK) + (x[j] & MASK) * yi + c;
+                t[j] = (int) u;
+                c = u >>> 32;
+            }
+            long u = top + c;
+            top = u & MASK;
+            overflow = u >>> 32;
+
+            long m = ((t[0] & MASK) * negInvModulus) & MASK;
+            c = ((t[0] & MASK) + m * (modulus[0] & MASK)) >>> 32;
+            for (int j = 1; j < s; j++) {
+                u = (t[j] & MASK) + m * (modulus[j] & MASK) + c;
+                t[j - 1] = (int) u;
+                c = u >>> 32;
+            }
+            u = top + c;
+            t[s - 1] = (int) u;
+            top = overflow + (u >>> 32);
+        }
+        return reduceOnce(t, (int) top);
+    }
+
+    // Given x + carry * R < 2p, replaces x with x + carry * R - p if that is non-negative, in place and without
+    // branching: a first pass finds the borrow out of x - p, then a second subtracts p masked by the outcome.
+    private int[] reduceOnce(int[] x, int carry) {
+        long borrow = 0;
+        for (int j = 0; j < width; j++) {
+            borrow = ((x[j] & MASK) - (modulus[j] & MASK) - borrow) >>> 63;
+        }
+        long subtractMask = ((borrow & (carry ^ 1)) - 1) & MASK; // all ones iff x >= p
+        borrow = 0;
+        for (int j = 0; j < width; j++) {
+            long u = (x[j] & MASK) - (modulus[j] & subtractMask) - borrow;
+            x[j] = (int) u;
+            borrow = u >>> 63;
+        }
+        return x;
+    }
+
+    private int[] add(int[] x, int[] y) {
+        int[] sum = new int[width];
+        long carry = 0;
+        for (int j = 0; j < width; j++) {
+            long u = (x[j] & MASK) + (y[j] & MASK) + carry;
+            sum[j] = (int) u;
+            carry = u >>> 32;
+        }
+        return reduceOnce(sum, (int) carry);
+    }
+
+    private int[] subtract(int[] x, int[] y) {
+        int[] diff = new int[width];
+        long borrow = 0;
+        for (int j = 0; j < width; j++) {
+            long u = (x[j] & MASK) - (y[j] & MASK) - borrow;
+            diff[j] = (int) u;
+            borrow = u >>> 63;
+        }
+        long addMask = -borrow & MASK, carry = 0;
+        for (int j = 0; j < width; j++) {
+            long u = (diff[j] & MASK) + (modulus[j] & addMask) + carry;
+            diff[j] = (int) u;
+            carry = u >>> 32;
+        }
+        return diff;
+    }
+
+    private Element checkField(Element elt, String message) {
+        checkArgument(equals(elt.getField()), message);
+        return elt;
+    }
+
+    public BigInteger toBigInteger(Element elt) {
+        int[] unit = new int[width];
+        unit[0] = 1;
+        return fromLimbs(montgomeryProduct(checkField(elt, "Field mismatch").limbs, unit));
+    }
+
+    public Element element(BigInteger n) {
+        return new Element(montgomeryProduct(toLimbs(n.mod(p), width), rSquared));
+    }
+
+    @Override
+    public Element fromBigInteger(BigInteger n) {
+        return element(n);
+    }
+
+    @Override
+    public Element zero() {
+        return zero;
+    }
+
+    @Override
+    public Element one() {
+        return one;
+    }
+
+    @Override
+    public Element sum(Element left, Element right) {
+        checkField(left, "LHS field mismatch");
+        checkField(right, "RHS field mismatch");
+        return new Element(add(left.limbs, right.limbs));
+    }
+
+    @Override
+    public Element difference(Element left, Element right) {
+        checkField(left, "LHS field mismatch");
+        checkField(right, "RHS field mismatch");
+        return new Element(subtract(left.limbs, right.limbs));
+    }
+
+    @Override
+    public Element negative(Element elt) {
+        checkField(elt, "Field mismatch");
+        return new Element(subtract(zero.limbs, elt.limbs));
+    }
+
+    @Override
+    public Element product(Element left, Element right) {
+        checkField(left, "LHS field mismatch");
+        checkField(right, "RHS field mismatch");
+        return new Element(montgomeryProduct(left.limbs, right.limbs));
+    }
+
+    @Override
+    public Element reciprocalOrZero(Element elt) {
+        // If elt = xR (mod p) then (xR)^-1 * R^3 / R = x^-1 * R (mod p), the Montgomery form of the reciprocal.
+        BigInteger n = fromLimbs(checkField(elt, "Field mismatch").limbs);
+        return n.signum() == 0 ? zero : new Element(montgomeryProduct(toLimbs(n.modInverse(p), width), rCubed));
+    }
+
+    // In-place batch inversion by Montgomery's trick, leaving zeros alone. Since Montgomery products of Montgomery
+    // forms stay in Montgomery form, the running products never need converting.
+    public void reciprocalOrZero(Element[] elements) {
+        int[][] prefixProducts = new int[elements.length][];
+        int[] prod = one.limbs;
+        for (int i = 0; i < elements.length; i++) {
+            int[] limbs = checkField(elements[i], "Field mismatch").limbs;
+            prefixProducts[i] = prod;
+            prod = isZero(limbs) ? prod : montgomeryProduct(prod, limbs);
+        }
+        prod = reciprocalOrZero(new Element(prod)).limbs;
+        for (int i = elements.length; i-- > 0; ) {
+            int[] limbs = elements[i].limbs;
+            if (!isZero(limbs)) {
+                elements[i] = new Element(montgomeryProduct(prefixProducts[i], prod));
+                prod = montgomeryProduct(prod, limbs);
+            }
+        }
+    }
+
+    private static boolean isZero(int[] limbs) {
+        int acc = 0;
+        for (int limb : limbs) {
+            acc |= limb;
+        }
+        return acc == 0;
+    }
+
+    @Override
+    public Element select(List<Element> elements, int index) {
+        // constant-time table lookup, to avoid leaking the index through the memory access pattern:
+        int[] result = new int[width];
+        for (int i = 0; i < elements.size(); i++) {
+            int[] limbs = checkField(elements.get(i), "Field mismatch").limbs;
+            int mask = ((i ^ index) - 1) >> 31;
+            for (int j = 0; j < width; j++) {
+                result[j] |= limbs[j] & mask;
+            }
+        }
+        return new Element(result);
+    }
+
+    private Element findPrimitiveElement() {
+        return Stream.iterate(one(), x -> x.add(one()))
+                .filter(this::isPrimitive)
+                .findFirst()
+                .orElseThrow(RuntimeException::new);
+    }
+
+    private List<Exponentiator> findTotientCofactorPowers() {
+        return totientCofactors.get().stream().map(Exponentiator::new).collect(ImmutableList.toImmutableList());
+    }
+
+    private boolean isPrimitive(Element unit) {
+        return totientCofactorPowers.get().stream().noneMatch(e -> e.power(this, unit).equals(one()));
+    }
+
+    @Override
+    public BigInteger size() {
+        return p;
+    }
+
+    @Override
+    public Element getPrimitiveElement() {
+        return primitiveElement.get();
+    }
+
+    @Override
+    public Element sampleUniformly(Random random) {
+        while (true) {
+            BigInteger n = new BigInteger(p.bitLength(), random);
+            if (n.compareTo(p) < 0) {
+                return element(n);
+            }
+        }
+    }
+
+    @Override
+    public PlusMinus<Element> plusMinus(Element elt) {
+        // use the same sign convention as LargePrimeField, so that the two are interchangeable:
+        return FiniteField.super.plusMinus(toBigInteger(elt).testBit(0) ? elt.negate() : elt);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof MontgomeryPrimeField && (o.getClass().isAssignableFrom(getClass()) ?
+                p.equals(((MontgomeryPrimeField) o).p) : o.equals(shallowCopy()));
+    }
+
+    @Override
+    public int hashCode() {
+        return p.hashCode();
+    }
+
+    public final class Element implements FieldElement<Element> {
+
+        private final int[] limbs;
+
+        private Element(int[] limbs) {
+            this.limbs = limbs;
+        }
+
+        @Override
+        public Element cast() {
+            return this;
+        }
+
+        @Override
+        public MontgomeryPrimeField getField() {
+            return MontgomeryPrimeField.this;
+        }
+
+        public BigInteger toBigInteger() {
+            return getField().toBigInteger(this);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return this == obj || obj instanceof Element && getField().equals(((Element) obj).getField()) &&
+                    Arrays.equals(limbs, ((Element) obj).limbs);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * getField().hashCode() + Arrays.hashCode(limbs);
+        }
+
+        @Override
+        public String toString() {
+            return toBigInteger() + " (mod " + p + ")";
+        }
+    }
+}
@@ -2,75 +2,184 @@ package securecompute.algebra;
 
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import securecompute.ShallowCopyable;
 
 import java.math.BigInteger;
-import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
-import java.util.stream.Stream;
 
-class PowerTwoRootsOfUnity<E> {
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Square roots by table-based Tonelli-Shanks, for any finite field whose multiplicative group has 2-adicity at most 64.
+ * <p>
+ * Writing {@code q - 1 = 2^n * m} with {@code m} odd, the inverse square root of {@code x} is found from
+ * {@code y = x^((m - 1) / 2)} and the discrete log {@code e} of the {@code 2^n}-th root of unity {@code x * y^2}
+ * to base {@code g}, where {@code g} is the primitive element raised to the power {@code m}. The log is found
+ * {@code w} bits at a time (Sarkar's variant of Bernstein's algorithm), using a lookup of the {@code 2^w} roots of
+ * unity of order dividing {@code 2^w} and tables of the powers {@code g^(-d * 2^i)} for {@code d < 2^w}. This takes
+ * roughly {@code 3n / w} tables of {@code 2^w} elements and {@code n} squarings plus {@code (n / w)^2 / 2} further
+ * products per root, so that the window size {@code w} trades memory and setup time for speed.
+ */
+public final class PowerTwoRootsOfUnity<E> {
+    private static final int DEFAULT_WINDOW_SIZE = 8;
+    private static final int MAX_TWO_ADICITY = 64;
+
     private static final Function<FiniteField<?>, PowerTwoRootsOfUnity<?>> CACHE = CacheBuilder.newBuilder()
             .weakKeys()
-            .build(CacheLoader.from(PowerTwoRootsOfUnity::computePowerTwoRootsOfUnity));
+            .build(CacheLoader.from(field -> computePowerTwoRootsOfUnity(field, DEFAULT_WINDOW_SIZE)));
 
     private final boolean hasCharacteristicTwo;
-    private final BigInteger sqrtPower;
-    private final BigInteger invSqrtPower;
-    private final Map<E, E> invSqrtMap;
+    private final Exponentiator sqrtPower;
+    private final Exponentiator invSqrtPower;
+    private final int windowSize, digitCount, lowDigitSize;
+    private final Map<E, Integer> rootOfUnityLogs; // zeta^d -> d, where zeta = g^(2^(n - w))
+    private final E[][] inversePowerTables; // i -> [g^(-d * 2^i) for d < 2^w], for those i that are needed
 
-    private PowerTwoRootsOfUnity(boolean hasCharacteristicTwo, BigInteger invSqrtPower, Map<E, E> invSqrtMap) {
+    private PowerTwoRootsOfUnity(boolean hasCharacteristicTwo, BigInteger invSqrtPower, int windowSize, int digitCount,
+                                 int lowDigitSize, Map<E, Integer> rootOfUnityLogs, E[][] inversePowerTables) {
         this.hasCharacteristicTwo = hasCharacteristicTwo;
-        this.invSqrtPower = invSqrtPower;
-        this.invSqrtMap = invSqrtMap;
-        sqrtPower = invSqrtPower.add(BigInteger.ONE);
+        this.invSqrtPower = new Exponentiator(invSqrtPower);
+        this.windowSize = windowSize;
+        this.digitCount = digitCount;
+        this.lowDigitSize = lowDigitSize;
+        this.rootOfUnityLogs = rootOfUnityLogs;
+        this.inversePowerTables = inversePowerTables;
+        sqrtPower = new Exponentiator(invSqrtPower.add(BigInteger.ONE));
     }
 
     public PlusMinus<E> invSqrt(Field<E> field, E x) {
-        E y = field.power(x, invSqrtPower), yy = field.power(y, 2), xyy = field.product(x, yy);
-        return invSqrtMap.containsKey(xyy) ? field.plusMinus(field.product(y, invSqrtMap.get(xyy))) : PlusMinus.ofMissing(field);
+        E y = invSqrtPower.power(field, x), z = field.product(x, field.product(y, y));
+        if (digitCount == 0) {
+            // no roots of unity of even order, so z = x^(q - 1) is one unless x is zero:
+            return z.equals(field.one()) ? field.plusMinus(y) : PlusMinus.ofMissing(field);
+        }
+        int w = windowSize, k = digitCount, r = lowDigitSize;
+
+        // z^(2^(jw)) for j < k:
+        @SuppressWarnings("unchecked")
+        E[] zPowers = (E[]) new Object[k];
+        zPowers[0] = z;
+        for (int j = 1; j < k; j++) {
+            E t = zPowers[j - 1];
+            for (int s = 0; s < w; s++) {
+                t = field.product(t, t);
+            }
+            zPowers[j] = t;
+        }
+
+        // Find the digits of e = log_g(z), the lowest digit having r bits and the rest w bits, from lowest to highest.
+        // Digit i is found from the root of unity (z * g^-(lower digits))^(2^(n - s_i - w_i)) of order dividing
+        // 2^(w_i), where s_i = digitOffset(i) and w_i are the offset and size of that digit.
+        int[] digits = new int[k];
+        Integer lowLog = rootOfUnityLogs.get(zPowers[k - 1]);
+        if (lowLog == null || (lowLog & (1 << w - r) - 1) != 0) {
+            return PlusMinus.ofMissing(field); // x is zero
+        }
+        digits[0] = lowLog >>> w - r;
+        if ((digits[0] & 1) != 0) {
+            return PlusMinus.ofMissing(field); // e is odd, so x is a non-square
+        }
+        for (int i = 1; i < k; i++) {
+            E h = zPowers[k - 1 - i];
+            for (int j = 0; j < i; j++) {
+                if (digits[j] != 0) {
+                    h = field.product(h, inversePowerTables[digitOffset(j) + (k - 1 - i) * w][digits[j]]);
+                }
+            }
+            Integer log = rootOfUnityLogs.get(h);
+            if (log == null) {
+                throw new IllegalStateException("Not a root of unity - invalid field?");
+            }
+            digits[i] = log;
+        }
+
+        // Finally, multiply y by g^(-e/2):
+        E result = field.product(y, inversePowerTables[0][digits[0] >>> 1]);
+        for (int i = 1; i < k; i++) {
+            if (digits[i] != 0) {
+                result = field.product(result, inversePowerTables[digitOffset(i) - 1][digits[i]]);
+            }
+        }
+        return field.plusMinus(result);
     }
 
     public PlusMinus<E> sqrt(Field<E> field, E x) {
         return hasCharacteristicTwo
-                ? field.plusMinus(field.power(x, sqrtPower)) // inverse Frobenius automorphism
+                ? field.plusMinus(sqrtPower.power(field, x)) // inverse Frobenius automorphism
                 : x.equals(field.zero()) ? field.plusMinus(field.zero()) : field.product(invSqrt(field, x), x);
     }
 
+    private int digitOffset(int i) {
+        return i > 0 ? lowDigitSize + (i - 1) * windowSize : 0;
+    }
+
     @SuppressWarnings("unchecked")
     public static <E> PowerTwoRootsOfUnity<E> powerTwoRootsOfUnity(FiniteField<E> field) {
         return (PowerTwoRootsOfUnity<E>) CACHE.apply(field);
     }
 
-    private static <E> PowerTwoRootsOfUnity<E> computePowerTwoRootsOfUnity(FiniteField<E> field) {
+    // uncached, for a different tradeoff between table size & speed than the default
+    public static <E> PowerTwoRootsOfUnity<E> powerTwoRootsOfUnity(FiniteField<E> field, int windowSize) {
+        return computePowerTwoRootsOfUnity(field, windowSize);
+    }
+
+    private static <E> PowerTwoRootsOfUnity<E> computePowerTwoRootsOfUnity(FiniteField<E> field, int windowSize) {
+        checkArgument(windowSize > 0 && windowSize <= 16, "Window size out of range: %s", windowSize);
         BigInteger qMinus1 = field.size().subtract(BigInteger.ONE);
-        int n = 0;
-        while (!qMinus1.testBit(n)) {
-            n++;
-        }
-        if (n > 20) {
+        int n = qMinus1.getLowestSetBit();
+        if (n > MAX_TWO_ADICITY) {
             throw new UnsupportedOperationException("Too many power-two roots of unity");
         }
         BigInteger invSqrtPower = qMinus1.shiftRight(n + 1);
+        if (n == 0) {
+            return new PowerTwoRootsOfUnity<>(true, invSqrtPower, 0, 0, 0, ImmutableMap.of(), null);
+        }
 
         // Attempt to replace the field with a clone at this point, to prevent strong references from
         // cache values to keys via the field elements held in the returned PowerTwoRootsOfUnity instance.
         FiniteField<E> clonedField = ShallowCopyable.tryClone(field);
 
-        E primitiveRootOfUnity = clonedField.power(clonedField.getPrimitiveElement(), qMinus1.shiftRight(n));
-        List<E> rootsOfUnity = Stream.iterate(clonedField.one(), x -> clonedField.product(primitiveRootOfUnity, x))
-                .limit(1 << n)
-                .collect(ImmutableList.toImmutableList());
+        int w = Math.min(windowSize, n), k = (n + w - 1) / w, r = n - (k - 1) * w;
+
+        // g^(-2^i) for i < n, where g is a primitive 2^n-th root of unity:
+        E g = clonedField.power(clonedField.getPrimitiveElement(), qMinus1.shiftRight(n));
+        @SuppressWarnings("unchecked")
+        E[] inverseGenerators = (E[]) new Object[n];
+        inverseGenerators[0] = clonedField.reciprocal(g);
+        for (int i = 1; i < n; i++) {
+            inverseGenerators[i] = clonedField.product(inverseGenerators[i - 1], inverseGenerators[i - 1]);
+        }
+
+        // zeta^-d for d < 2^w, where zeta^-1 = g^(-2^(n - w)), keyed by zeta^d = zeta^-(2^w - d):
+        E[] zetaPowers = powerTable(clonedField, inverseGenerators[n - w], w);
+        ImmutableMap.Builder<E, Integer> logBuilder = ImmutableMap.builderWithExpectedSize(1 << w);
+        for (int d = 0; d < 1 << w; d++) {
+            logBuilder.put(zetaPowers[d], -d & (1 << w) - 1);
+        }
 
-        ImmutableMap.Builder<E, E> builder = ImmutableMap.builderWithExpectedSize((rootsOfUnity.size() + 1) / 2);
-        for (int i = 0; i < rootsOfUnity.size(); i += 2) {
-            builder.put(rootsOfUnity.get(i), rootsOfUnity.get(i > 1 ? rootsOfUnity.size() - i / 2 : 0));
+        // Tables of g^(-d * 2^i) are needed at offsets tw, r + tw (for the digit logs) and r - 1 + tw (for halving):
+        @SuppressWarnings("unchecked")
+        E[][] inversePowerTables = (E[][]) new Object[n][];
+        for (int t = 0; t < k; t++) {
+            for (int i : new int[]{t * w, r + t * w, r - 1 + t * w}) {
+                if (i < n && inversePowerTables[i] == null) {
+                    inversePowerTables[i] = powerTable(clonedField, inverseGenerators[i], w);
+                }
+            }
         }
-        Map<E, E> invSqrtMap = builder.build();
 
-        return new PowerTwoRootsOfUnity<>(n == 0, invSqrtPower, invSqrtMap);
+        return new PowerTwoRootsOfUnity<>(false, invSqrtPower, w, k, r, logBuilder.build(), inversePowerTables);
+    }
+
+    private static <E> E[] powerTable(Field<E> field, E base, int windowSize) {
+        @SuppressWarnings("unchecked")
+        E[] table = (E[]) new Object[1 << windowSize];
+        table[0] = field.one();
+        for (int d = 1; d < table.length; d++) {
+            table[d] = field.product(table[d - 1], base);
+        }
+        return table;
     }
 }
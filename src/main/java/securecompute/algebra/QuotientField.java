@@ -4,6 +4,7 @@ import securecompute.ShallowCopyable;
 
 import java.math.BigInteger;
 import java.util.Objects;
+import java.util.function.UnaryOperator;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -12,11 +13,13 @@ public class QuotientField<E> extends ShallowCopyable implements Field<QuotientF
 
     private final EuclideanDomain<E> baseRing;
     private final E idealGenerator;
+    private final UnaryOperator<E> reducer;
     private final QuotientField<E>.Coset zero, one;
 
     public QuotientField(EuclideanDomain<E> baseRing, E idealGenerator) {
         this.baseRing = checkNotNull(baseRing);
         this.idealGenerator = baseRing.abs(idealGenerator);
+        reducer = baseRing.reducer(this.idealGenerator);
         zero = coset(baseRing.zero());
         one = coset(baseRing.one());
     }
@@ -86,7 +89,7 @@ public class QuotientField<E> extends ShallowCopyable implements Field<QuotientF
     }
 
     public final Coset coset(E offset) {
-        return new Coset(baseRing.mod(offset, idealGenerator));
+        return new Coset(reducer.apply(offset));
     }
 
     @Override
@@ -57,6 +57,10 @@ public interface Ring<E> extends AbelianGroup<E> {
     }
 
     default E power(E elt, BigInteger exponent) {
+        if (exponent.bitLength() >= Exponentiator.MIN_RECODED_BIT_LENGTH) {
+            return new Exponentiator(exponent).power(this, elt);
+        }
+        // (short exponents, such as squares & cubes, are not worth recoding into windows)
         if (exponent.signum() < 0) {
             throw new ArithmeticException("Negative exponent");
         }
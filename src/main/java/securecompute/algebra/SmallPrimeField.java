@@ -0,0 +1,423 @@
+package securecompute.algebra;
+
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import securecompute.ShallowCopyable;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.math.BigInteger.ONE;
+
+/**
+ * A prime field for primes {@code p < 2^62}, with elements held as canonical {@code long} residues. Products are
+ * reduced by a single division for {@code p < 2^31}, by folding for Mersenne primes such as {@code 2^61 - 1} and by
+ * Montgomery reduction otherwise, so that nothing goes through {@link BigInteger} once the field is constructed.
+ * <p>
+ * As with {@link Gf256}, there are also primitive (unboxed) methods on residues and arrays of residues, for bulk
+ * processing of whole rows of symbols.
+ */
+public class SmallPrimeField extends ShallowCopyable implements FiniteField<SmallPrimeField.Element> {
+
+    private enum Reduction {DIVISION, MERSENNE, MONTGOMERY}
+
+    private final long p;
+    private final Reduction reduction;
+    private final int mersenneExponent;
+    private final long invModulus; // p^-1 (mod 2^64), when using Montgomery reduction
+    private final long rSquared; // R^2 (mod p), where R = 2^64
+    private final Element zero, one;
+    private final Supplier<Element> primitiveElement = Suppliers.memoize(this::findPrimitiveElement);
+    private final Supplier<SortedSet<BigInteger>> totientCofactors;
+    private final Supplier<List<Exponentiator>> totientCofactorPowers =
+            Suppliers.memoize(this::findTotientCofactorPowers);
+
+    public SmallPrimeField(long p) {
+        this(p, true);
+    }
+
+    public SmallPrimeField(long p, boolean checkPrime) {
+        this(checkPrime ? checkPrime(p) : p,
+                Suppliers.memoize(() -> LargePrimeField.findPrimeCofactors(BigInteger.valueOf(p - 1))));
+    }
+
+    public SmallPrimeField(long p, List<BigInteger> totientPrimeFactors) {
+        this(checkPrime(p), Suppliers.ofInstance(
+                LargePrimeField.getPrimeCofactors(BigInteger.valueOf(p - 1), totientPrimeFactors)));
+    }
+
+    private SmallPrimeField(long p, Supplier<SortedSet<BigInteger>> totientCofactors) {
+        checkArgument(p > 1 && p < 1L << 62, "Modulus out of range: %s", p);
+        this.p = p;
+        this.totientCofactors = totientCofactors;
+
+        if ((p & p + 1) == 0) {
+            reduction = Reduction.MERSENNE;
+        } else if (p < 1L << 31) {
+            reduction = Reduction.DIVISION;
+        } else {
+            reduction = Reduction.MONTGOMERY;
+        }
+        mersenneExponent = 64 - Long.numberOfLeadingZeros(p);
+
+        long inv = 1; // Newton iteration for p^-1 (mod 2^64), doubling the number of correct bits each step
+        for (int i = 0; i < 6; i++) {
+            inv *= 2 - p * inv;
+        }
+        invModulus = inv;
+        rSquared = ONE.shiftLeft(128).mod(BigInteger.valueOf(p)).longValue();
+
+        zero = new Element(0);
+        one = new Element(1);
+    }
+
+    private SmallPrimeField(SmallPrimeField original) {
+        this.p = original.p;
+        this.totientCofactors = original.totientCofactors;
+        this.reduction = original.reduction;
+        this.mersenneExponent = original.mersenneExponent;
+        this.invModulus = original.invModulus;
+        this.rSquared = original.rSquared;
+        zero = new Element(0);
+        one = new Element(1);
+    }
+
+    @Override
+    protected SmallPrimeField shallowCopy() {
+        return new SmallPrimeField(this);
+    }
+
+    private static long checkPrime(long p) {
+        return LargePrimeField.checkPrime(BigInteger.valueOf(p)).longValue();
+    }
+
+    public long getModulus() {
+        return p;
+    }
+
+    // Signed high word of the full 128-bit product, as Math.multiplyHigh (which is not available in Java 8).
+    private static long multiplyHigh(long x, long y) {
+        long x1 = x >> 32, x2 = x & 0xffffffffL;
+        long y1 = y >> 32, y2 = y & 0xffffffffL;
+        long z2 = x2 * y2;
+        long t = x1 * y2 + (z2 >>> 32);
+        long z1 = (t & 0xffffffffL) + x2 * y1;
+        return x1 * y1 + (t >> 32) + (z1 >> 32);
+    }
+
+    // Montgomery reduction of the product: returns x * y / R (mod p), for x, y < p.
+    private long montgomeryProduct(long x, long y) {
+        long m = x * y * invModulus;
+        // the low words of x * y and m * p cancel exactly, so only the high words are needed:
+        long mpHigh = multiplyHigh(m, p) + (m >> 63 & p);
+        long t = multiplyHigh(x, y) - mpHigh;
+        return t < 0 ? t + p : t;
+    }
+
+    private long mersenneProduct(long x, long y) {
+        int k = mersenneExponent;
+        long low = x * y, high = multiplyHigh(x, y);
+        long r = (low & p) + (high << 64 - k | low >>> k);
+        r = (r & p) + (r >>> k);
+        return r == p ? 0 : r;
+    }
+
+    // Primitive (unboxed) arithmetic on canonical residues in [0, p). These perform no range checks and allocate
+    // nothing, so are suitable for inner loops.
+
+    public long add(long left, long right) {
+        long sum = left + right;
+        return sum >= p ? sum - p : sum;
+    }
+
+    public long subtract(long left, long right) {
+        long diff = left - right;
+        return diff < 0 ? diff + p : diff;
+    }
+
+    public long multiply(long left, long right) {
+        switch (reduction) {
+            case DIVISION:
+                return left * right % p;
+            case MERSENNE:
+                return mersenneProduct(left, right);
+            default:
+                return montgomeryProduct(montgomeryProduct(left, right), rSquared);
+        }
+    }
+
+    public long recipOrZero(long value) {
+        // extended Euclidean algorithm, tracking only the coefficient of value:
+        long r = p, newR = value, t = 0, newT = 1;
+        while (newR != 0) {
+            long q = r / newR, tmp;
+            tmp = r - q * newR;
+            r = newR;
+            newR = tmp;
+            tmp = t - q * newT;
+            t = newT;
+            newT = tmp;
+        }
+        return t < 0 ? t + p : t;
+    }
+
+    // In-place batch inversion, leaving zeros alone. The second form splits the array into chunks which are inverted in
+    // parallel on the common fork-join pool, at the cost of one extended Euclidean inversion per chunk.
+
+    public void recipOrZero(long[] values) {
+        recipOrZero(values, 0, values.length);
+    }
+
+    public void recipOrZero(long[] values, int chunkSize) {
+        checkArgument(chunkSize > 0, "Chunk size must be positive: %s", chunkSize);
+        int chunkCount = (values.length + chunkSize - 1) / chunkSize;
+        IntStream.range(0, chunkCount).parallel().forEach(i ->
+                recipOrZero(values, i * chunkSize, Math.min((i + 1) * chunkSize, values.length)));
+    }
+
+    // uses Montgomery's trick to invert the whole range from a single inversion op
+    private void recipOrZero(long[] values, int from, int to) {
+        long[] prefixProducts = new long[to - from];
+        long prod = 1;
+        for (int i = from; i < to; i++) {
+            prefixProducts[i - from] = prod;
+            prod = values[i] != 0 ? multiply(prod, values[i]) : prod;
+        }
+        prod = recipOrZero(prod);
+        for (int i = to; i-- > from; ) {
+            long x = values[i];
+            if (x != 0) {
+                values[i] = multiply(prefixProducts[i - from], prod);
+                prod = multiply(prod, x);
+            }
+        }
+    }
+
+    // Fixed multipliers are pre-scaled by R for Montgomery reduction, so that each scaled product costs one reduction.
+    private long scaledCoefficient(long coefficient) {
+        return reduction == Reduction.MONTGOMERY ? montgomeryProduct(coefficient, rSquared) : coefficient;
+    }
+
+    private long scaledProduct(long value, long scaledCoefficient) {
+        switch (reduction) {
+            case DIVISION:
+                return value * scaledCoefficient % p;
+            case MERSENNE:
+                return mersenneProduct(value, scaledCoefficient);
+            default:
+                return montgomeryProduct(value, scaledCoefficient);
+        }
+    }
+
+    public void addInto(long[] dst, long[] left, long[] right) {
+        int n = checkLengths(dst.length, left.length, right.length);
+        for (int i = 0; i < n; i++) {
+            dst[i] = add(left[i], right[i]);
+        }
+    }
+
+    public void mulScalar(long[] dst, long[] src, long coefficient) {
+        int n = checkLengths(dst.length, src.length);
+        long c = scaledCoefficient(coefficient);
+        for (int i = 0; i < n; i++) {
+            dst[i] = scaledProduct(src[i], c);
+        }
+    }
+
+    public void mulScalarAdd(long[] dst, long[] src, long coefficient) {
+        int n = checkLengths(dst.length, src.length);
+        if (coefficient == 0) {
+            return;
+        }
+        long c = scaledCoefficient(coefficient);
+        for (int i = 0; i < n; i++) {
+            dst[i] = add(dst[i], scaledProduct(src[i], c));
+        }
+    }
+
+    public long dot(long[] left, long[] right) {
+        int n = checkLengths(left.length, right.length);
+        long acc = 0;
+        if (reduction == Reduction.MONTGOMERY) {
+            // accumulate x * y / R, then correct by a single factor of R at the end:
+            for (int i = 0; i < n; i++) {
+                acc = add(acc, montgomeryProduct(left[i], right[i]));
+            }
+            return montgomeryProduct(acc, rSquared);
+        }
+        for (int i = 0; i < n; i++) {
+            acc = add(acc, multiply(left[i], right[i]));
+        }
+        return acc;
+    }
+
+    private static int checkLengths(int length, int otherLength) {
+        checkArgument(length == otherLength, "Array length mismatch: %s != %s", length, otherLength);
+        return length;
+    }
+
+    private static int checkLengths(int length, int otherLength1, int otherLength2) {
+        return checkLengths(checkLengths(length, otherLength1), otherLength2);
+    }
+
+    private long value(Element elt, String message) {
+        checkArgument(equals(elt.getField()), message);
+        return elt.value;
+    }
+
+    public Element element(long n) {
+        return new Element(Math.floorMod(n, p));
+    }
+
+    @Override
+    public Element fromLong(long n) {
+        return element(n);
+    }
+
+    @Override
+    public Element fromBigInteger(BigInteger n) {
+        return new Element(n.mod(BigInteger.valueOf(p)).longValue());
+    }
+
+    @Override
+    public Element zero() {
+        return zero;
+    }
+
+    @Override
+    public Element one() {
+        return one;
+    }
+
+    @Override
+    public Element sum(Element left, Element right) {
+        return new Element(add(value(left, "LHS field mismatch"), value(right, "RHS field mismatch")));
+    }
+
+    @Override
+    public Element difference(Element left, Element right) {
+        return new Element(subtract(value(left, "LHS field mismatch"), value(right, "RHS field mismatch")));
+    }
+
+    @Override
+    public Element negative(Element elt) {
+        return new Element(subtract(0, value(elt, "Field mismatch")));
+    }
+
+    @Override
+    public Element product(Element left, Element right) {
+        return new Element(multiply(value(left, "LHS field mismatch"), value(right, "RHS field mismatch")));
+    }
+
+    @Override
+    public Element reciprocalOrZero(Element elt) {
+        return new Element(recipOrZero(value(elt, "Field mismatch")));
+    }
+
+    private Element findPrimitiveElement() {
+        return Stream.iterate(one(), x -> x.add(one()))
+                .filter(this::isPrimitive)
+                .findFirst()
+                .orElseThrow(RuntimeException::new);
+    }
+
+    private List<Exponentiator> findTotientCofactorPowers() {
+        return totientCofactors.get().stream().map(Exponentiator::new).collect(ImmutableList.toImmutableList());
+    }
+
+    private boolean isPrimitive(Element unit) {
+        return totientCofactorPowers.get().stream().noneMatch(e -> e.power(this, unit).equals(one()));
+    }
+
+    @Override
+    public BigInteger size() {
+        return BigInteger.valueOf(p);
+    }
+
+    @Override
+    public long sizeAsLong() {
+        return p;
+    }
+
+    @Override
+    public Element getPrimitiveElement() {
+        return primitiveElement.get();
+    }
+
+    @Override
+    public Element sampleUniformly(Random random) {
+        int shift = Long.numberOfLeadingZeros(p);
+        while (true) {
+            long n = random.nextLong() >>> shift;
+            if (n < p) {
+                return new Element(n);
+            }
+        }
+    }
+
+    @Override
+    public PlusMinus<Element> plusMinus(Element elt) {
+        // use the same sign convention as LargePrimeField, so that the two are interchangeable:
+        return FiniteField.super.plusMinus((value(elt, "Field mismatch") & 1) != 0 ? elt.negate() : elt);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof SmallPrimeField && (o.getClass().isAssignableFrom(getClass()) ?
+                p == ((SmallPrimeField) o).p : o.equals(shallowCopy()));
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(p);
+    }
+
+    public final class Element implements FieldElement<Element> {
+
+        private final long value;
+
+        private Element(long value) {
+            this.value = value;
+        }
+
+        public long getValue() {
+            return value;
+        }
+
+        public BigInteger toBigInteger() {
+            return BigInteger.valueOf(value);
+        }
+
+        @Override
+        public Element cast() {
+            return this;
+        }
+
+        @Override
+        public SmallPrimeField getField() {
+            return SmallPrimeField.this;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return this == obj || obj instanceof Element && getField().equals(((Element) obj).getField()) &&
+                    value == ((Element) obj).value;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * getField().hashCode() + Long.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return value + " (mod " + p + ")";
+        }
+    }
+}
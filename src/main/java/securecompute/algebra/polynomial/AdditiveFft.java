@@ -0,0 +1,464 @@
+package securecompute.algebra.polynomial;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import securecompute.ShallowCopyable;
+import securecompute.algebra.Field;
+import securecompute.algebra.FiniteField;
+import securecompute.algebra.Gf256;
+import securecompute.algebra.Gf65536;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Additive FFTs over fields of characteristic two, in the novel polynomial basis of Lin, Chung & Han.
+ * <p>
+ * Given elements {@code v_0, v_1, ...} linearly independent over GF(2), let {@code s_i} be the (normalised) subspace
+ * polynomial vanishing on the span of {@code v_0, ..., v_(i-1)}, with {@code s_i(v_i) = 1}, and let {@code X_j} be the
+ * product of the {@code s_i} over the set bits {@code i} of {@code j}. Then the polynomials {@code X_j} for
+ * {@code j < 2^k} form a basis of those of degree below {@code 2^k}, in which evaluation at each point
+ * {@code w_u = sum of v_i over the set bits i of u}, for {@code u < 2^k}, takes {@code k * 2^(k-1)} multiplications.
+ * Conversion to and from the usual monomial basis is by repeated division by the sparse polynomials {@code s_i}. Where
+ * it can be found by search, a Cantor basis ({@code v_0 = 1} and {@code v_i^2 + v_i = v_(i-1)}) is used, as this makes
+ * the {@code s_i} particularly sparse, with only {@code 2^popCount(i)} terms.
+ */
+public final class AdditiveFft<E> {
+    private static final int MAX_LOG_LENGTH = 30;
+    private static final int MAX_CANTOR_BASIS_SEARCH_LOG_SIZE = 16;
+
+    private static final Function<FiniteField<?>, AdditiveFft<?>> CACHE = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build(CacheLoader.from(AdditiveFft::computeAdditiveFft));
+
+    private final int maxLogLength;
+    private final E[][] skewTables; // i -> [s_i(v_j) for i < j < maxLogLength]
+    private final int[][] termDegrees; // i -> those j < i for which the coefficient of x^(2^j) in s_i is nonzero
+    private final E[][] termCoefficients; // i -> the corresponding coefficients of s_i
+    private final E[] leadingCoefficients; // i -> coefficient of x^(2^i) in s_i
+    private final E[] leadingCoefficientInverses;
+    private final RawTables rawTables; // the same tables as raw values, over GF(2^8) & GF(2^16) only (else null)
+
+    @SuppressWarnings("unchecked")
+    private AdditiveFft(Field<E> field, List<E> basis) {
+        int k = maxLogLength = basis.size();
+        skewTables = (E[][]) new Object[k][];
+        termDegrees = new int[k][];
+        termCoefficients = (E[][]) new Object[k][];
+        leadingCoefficients = newArray(k);
+        leadingCoefficientInverses = newArray(k);
+
+        // Unnormalised subspace polynomials satisfy s_(i+1)(x) = s_i(x)^2 + s_i(v_i) * s_i(x), from s_0(x) = x, which
+        // gives both their values at the basis elements and (as they are linearised) their coefficients:
+        E[] values = basis.toArray(newArray(k));
+        E[] coefficients = newArray(1);
+        coefficients[0] = field.one();
+        for (int i = 0; i < k; i++) {
+            E c = values[i], cInverse = field.reciprocal(c);
+
+            skewTables[i] = newArray(k - i - 1);
+            for (int j = i + 1; j < k; j++) {
+                skewTables[i][j - i - 1] = field.product(values[j], cInverse);
+            }
+            List<Integer> degrees = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                if (!coefficients[j].equals(field.zero())) {
+                    degrees.add(j);
+                }
+            }
+            termDegrees[i] = degrees.stream().mapToInt(j -> j).toArray();
+            termCoefficients[i] = newArray(degrees.size());
+            for (int t = 0; t < degrees.size(); t++) {
+                termCoefficients[i][t] = field.product(coefficients[degrees.get(t)], cInverse);
+            }
+            leadingCoefficients[i] = cInverse;
+            leadingCoefficientInverses[i] = c;
+
+            for (int j = i + 1; j < k; j++) {
+                values[j] = field.sum(field.product(values[j], values[j]), field.product(c, values[j]));
+            }
+            E[] nextCoefficients = newArray(i + 2);
+            for (int j = 0; j <= i + 1; j++) {
+                E square = j > 0 ? field.product(coefficients[j - 1], coefficients[j - 1]) : field.zero();
+                nextCoefficients[j] = j <= i ? field.sum(square, field.product(c, coefficients[j])) : square;
+            }
+            coefficients = nextCoefficients;
+        }
+        RawArithmetic arithmetic = RawArithmetic.of(field);
+        rawTables = arithmetic != null ? new RawTables(arithmetic) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> AdditiveFft<E> additiveFft(FiniteField<E> field) {
+        return (AdditiveFft<E>) CACHE.apply(field);
+    }
+
+    private static <E> AdditiveFft<E> computeAdditiveFft(FiniteField<E> field) {
+        BigInteger size = field.size();
+        if (size.bitCount() != 1) {
+            return new AdditiveFft<>(field, new ArrayList<>()); // not of characteristic two
+        }
+
+        // Attempt to replace the field with a clone at this point, to prevent strong references from
+        // cache values to keys via the field elements held in the returned AdditiveFft instance.
+        FiniteField<E> clonedField = ShallowCopyable.tryClone(field);
+
+        int degree = size.getLowestSetBit(), maxLogLength = Math.min(degree, MAX_LOG_LENGTH);
+        List<E> basis = degree <= MAX_CANTOR_BASIS_SEARCH_LOG_SIZE ? cantorBasis(clonedField, maxLogLength) : null;
+        if (basis == null) {
+            // The powers 1, g, g^2, ... of the primitive element g are independent, as g generates the field.
+            basis = new ArrayList<>();
+            E g = clonedField.getPrimitiveElement();
+            for (E x = clonedField.one(); basis.size() < maxLogLength; x = clonedField.product(x, g)) {
+                basis.add(x);
+            }
+        }
+        return new AdditiveFft<>(clonedField, basis);
+    }
+
+    // Finds v_i with v_i^2 + v_i = v_(i-1) by exhaustive search, which always succeeds when the degree of the field
+    // is a power of two (as for the fields of 2, 256 and 65536 elements). Returns null if a solution is missing.
+    private static <E> List<E> cantorBasis(FiniteField<E> field, int length) {
+        List<E> elements = field.getElements().collect(Collectors.toList());
+        List<E> basis = new ArrayList<>();
+        basis.add(field.one());
+        while (basis.size() < length) {
+            E target = basis.get(basis.size() - 1);
+            E root = elements.stream()
+                    .filter(x -> field.sum(field.product(x, x), x).equals(target))
+                    .findFirst().orElse(null);
+            if (root == null) {
+                return null;
+            }
+            basis.add(root);
+        }
+        return basis;
+    }
+
+    public int maxLength() {
+        return maxLogLength > 0 ? 1 << maxLogLength : 0;
+    }
+
+    E[] product(Field<E> field, E[] left, E[] right) {
+        RawArithmetic arithmetic = rawTables != null ? RawArithmetic.of(field) : null;
+        if (arithmetic != null) {
+            return rawTables.product(arithmetic, left, right);
+        }
+        int resultLength = left.length + right.length - 1;
+        int logLength = 32 - Integer.numberOfLeadingZeros(resultLength - 1), length = 1 << logLength;
+
+        E[] a = padded(field, left, length), b = padded(field, right, length);
+        toNovelBasis(field, a);
+        toNovelBasis(field, b);
+        transform(field, a);
+        transform(field, b);
+        for (int i = 0; i < length; i++) {
+            a[i] = field.product(a[i], b[i]);
+        }
+        inverseTransform(field, a);
+        fromNovelBasis(field, a);
+        return Arrays.copyOf(a, resultLength);
+    }
+
+    // Evaluates the polynomial with the given novel basis coefficients at each point w_u, in place.
+    public void transform(Field<E> field, E[] values) {
+        int length = values.length, logLength = logLength(length);
+
+        for (int i = logLength - 1; i >= 0; i--) {
+            int half = 1 << i;
+            for (int offset = 0; offset < length; offset += 2 * half) {
+                E skew = skew(field, i, offset);
+                for (int j = offset; j < offset + half; j++) {
+                    E u = values[j], v = values[j + half];
+                    u = skew != null ? field.sum(u, field.product(skew, v)) : u;
+                    values[j] = u;
+                    values[j + half] = field.sum(u, v);
+                }
+            }
+        }
+    }
+
+    // Recovers the novel basis coefficients of a polynomial from its values at each point w_u, in place.
+    public void inverseTransform(Field<E> field, E[] values) {
+        int length = values.length, logLength = logLength(length);
+
+        for (int i = 0; i < logLength; i++) {
+            int half = 1 << i;
+            for (int offset = 0; offset < length; offset += 2 * half) {
+                E skew = skew(field, i, offset);
+                for (int j = offset; j < offset + half; j++) {
+                    E u = values[j], v = field.difference(values[j + half], u);
+                    values[j] = skew != null ? field.difference(u, field.product(skew, v)) : u;
+                    values[j + half] = v;
+                }
+            }
+        }
+    }
+
+    // Converts monomial coefficients to novel basis coefficients in place, by splitting f = f_0 + s_i * f_1 from the
+    // top level i down, leaving the remainder f_0 in the lower half of each block and the quotient f_1 in the upper.
+    public void toNovelBasis(Field<E> field, E[] coefficients) {
+        int length = coefficients.length, logLength = logLength(length);
+
+        for (int i = logLength - 1; i >= 0; i--) {
+            int half = 1 << i;
+            int[] degrees = termDegrees[i];
+            E[] terms = termCoefficients[i];
+            for (int offset = 0; offset < length; offset += 2 * half) {
+                for (int t = offset + 2 * half - 1; t >= offset + half; t--) {
+                    E q = coefficients[t] = field.product(coefficients[t], leadingCoefficientInverses[i]);
+                    if (!q.equals(field.zero())) {
+                        for (int d = 0; d < degrees.length; d++) {
+                            int s = t - half + (1 << degrees[d]);
+                            coefficients[s] = field.difference(coefficients[s], field.product(q, terms[d]));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // The inverse of the above, undoing each step of the division in reverse order.
+    public void fromNovelBasis(Field<E> field, E[] coefficients) {
+        int length = coefficients.length, logLength = logLength(length);
+
+        for (int i = 0; i < logLength; i++) {
+            int half = 1 << i;
+            int[] degrees = termDegrees[i];
+            E[] terms = termCoefficients[i];
+            for (int offset = 0; offset < length; offset += 2 * half) {
+                for (int t = offset + half; t < offset + 2 * half; t++) {
+                    E q = coefficients[t];
+                    if (!q.equals(field.zero())) {
+                        for (int d = 0; d < degrees.length; d++) {
+                            int s = t - half + (1 << degrees[d]);
+                            coefficients[s] = field.sum(coefficients[s], field.product(q, terms[d]));
+                        }
+                    }
+                    coefficients[t] = field.product(q, leadingCoefficients[i]);
+                }
+            }
+        }
+    }
+
+    // s_i(w_offset), or null if zero (when the offset has no set bits above i):
+    private E skew(Field<E> field, int i, int offset) {
+        E skew = null;
+        for (int j = i + 1; offset >>> j != 0; j++) {
+            if ((offset >>> j & 1) != 0) {
+                skew = skew != null ? field.sum(skew, skewTables[i][j - i - 1]) : skewTables[i][j - i - 1];
+            }
+        }
+        return skew;
+    }
+
+    private int logLength(int length) {
+        checkArgument(Integer.bitCount(length) == 1, "Transform length not a power of two: %s", length);
+        int logLength = Integer.numberOfTrailingZeros(length);
+        if (logLength > maxLogLength) {
+            throw new IllegalArgumentException("Transform length too large: 2^" + logLength);
+        }
+        return logLength;
+    }
+
+    private static <E> E[] padded(Field<E> field, E[] values, int length) {
+        E[] result = newArray(length);
+        System.arraycopy(values, 0, result, 0, values.length);
+        for (int i = values.length; i < length; i++) {
+            result[i] = field.zero();
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> E[] newArray(int length) {
+        return (E[]) new Object[length];
+    }
+
+    // Raw (unboxed) values & arithmetic for the binary fields which provide them, as ints of up to 16 bits:
+    private interface RawArithmetic {
+        int value(Object elt);
+
+        Object element(int value);
+
+        int multiply(int left, int right);
+
+        static RawArithmetic of(Field<?> field) {
+            if (field instanceof Gf256) {
+                Gf256 gf256 = (Gf256) field;
+                return new RawArithmetic() {
+                    @Override
+                    public int value(Object elt) {
+                        return ((Gf256.Element) elt).getValue() & 0xff;
+                    }
+
+                    @Override
+                    public Object element(int value) {
+                        return gf256.element(value);
+                    }
+
+                    @Override
+                    public int multiply(int left, int right) {
+                        return gf256.multiply((byte) left, (byte) right) & 0xff;
+                    }
+                };
+            }
+            if (field instanceof Gf65536) {
+                Gf65536 gf65536 = (Gf65536) field;
+                return new RawArithmetic() {
+                    @Override
+                    public int value(Object elt) {
+                        return ((Gf65536.Element) elt).getValue() & 0xffff;
+                    }
+
+                    @Override
+                    public Object element(int value) {
+                        return gf65536.element(value);
+                    }
+
+                    @Override
+                    public int multiply(int left, int right) {
+                        return gf65536.multiply((short) left, (short) right) & 0xffff;
+                    }
+                };
+            }
+            return null;
+        }
+    }
+
+    // The transforms & basis conversions above, specialised to raw values (where both addition & subtraction are just
+    // XOR), to avoid the per-element overhead of the generic field ops, which would otherwise make the FFT slower than
+    // Karatsuba multiplication at every length that GF(2^8) allows.
+    private final class RawTables {
+        private final int[][] skewTables = new int[maxLogLength][];
+        private final int[][] termCoefficients = new int[maxLogLength][];
+        private final int[] leadingCoefficients = new int[maxLogLength];
+        private final int[] leadingCoefficientInverses = new int[maxLogLength];
+
+        RawTables(RawArithmetic arithmetic) {
+            for (int i = 0; i < maxLogLength; i++) {
+                skewTables[i] = values(arithmetic, AdditiveFft.this.skewTables[i]);
+                termCoefficients[i] = values(arithmetic, AdditiveFft.this.termCoefficients[i]);
+                leadingCoefficients[i] = arithmetic.value(AdditiveFft.this.leadingCoefficients[i]);
+                leadingCoefficientInverses[i] = arithmetic.value(AdditiveFft.this.leadingCoefficientInverses[i]);
+            }
+        }
+
+        private int[] values(RawArithmetic arithmetic, E[] elements) {
+            int[] result = new int[elements.length];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = arithmetic.value(elements[i]);
+            }
+            return result;
+        }
+
+        E[] product(RawArithmetic arithmetic, E[] left, E[] right) {
+            int resultLength = left.length + right.length - 1;
+            int logLength = 32 - Integer.numberOfLeadingZeros(resultLength - 1), length = 1 << logLength;
+            logLength(length);
+
+            int[] a = new int[length], b = new int[length];
+            for (int i = 0; i < left.length; i++) {
+                a[i] = arithmetic.value(left[i]);
+            }
+            for (int i = 0; i < right.length; i++) {
+                b[i] = arithmetic.value(right[i]);
+            }
+            toNovelBasis(arithmetic, a);
+            toNovelBasis(arithmetic, b);
+            transform(arithmetic, a);
+            transform(arithmetic, b);
+            for (int i = 0; i < length; i++) {
+                a[i] = arithmetic.multiply(a[i], b[i]);
+            }
+            inverseTransform(arithmetic, a);
+            fromNovelBasis(arithmetic, a);
+
+            E[] result = newArray(resultLength);
+            for (int i = 0; i < resultLength; i++) {
+                @SuppressWarnings("unchecked")
+                E elt = (E) arithmetic.element(a[i]);
+                result[i] = elt;
+            }
+            return result;
+        }
+
+        private void transform(RawArithmetic arithmetic, int[] values) {
+            for (int i = Integer.numberOfTrailingZeros(values.length) - 1; i >= 0; i--) {
+                int half = 1 << i;
+                for (int offset = 0; offset < values.length; offset += 2 * half) {
+                    int skew = skew(i, offset);
+                    for (int j = offset; j < offset + half; j++) {
+                        int u = values[j] ^ arithmetic.multiply(skew, values[j + half]);
+                        values[j] = u;
+                        values[j + half] ^= u;
+                    }
+                }
+            }
+        }
+
+        private void inverseTransform(RawArithmetic arithmetic, int[] values) {
+            for (int i = 0, logLength = Integer.numberOfTrailingZeros(values.length); i < logLength; i++) {
+                int half = 1 << i;
+                for (int offset = 0; offset < values.length; offset += 2 * half) {
+                    int skew = skew(i, offset);
+                    for (int j = offset; j < offset + half; j++) {
+                        int v = values[j + half] ^= values[j];
+                        values[j] ^= arithmetic.multiply(skew, v);
+                    }
+                }
+            }
+        }
+
+        private void toNovelBasis(RawArithmetic arithmetic, int[] coefficients) {
+            for (int i = Integer.numberOfTrailingZeros(coefficients.length) - 1; i >= 0; i--) {
+                int half = 1 << i;
+                int[] degrees = termDegrees[i], terms = termCoefficients[i];
+                for (int offset = 0; offset < coefficients.length; offset += 2 * half) {
+                    for (int t = offset + 2 * half - 1; t >= offset + half; t--) {
+                        int q = coefficients[t] = arithmetic.multiply(coefficients[t], leadingCoefficientInverses[i]);
+                        if (q != 0) {
+                            for (int d = 0; d < degrees.length; d++) {
+                                coefficients[t - half + (1 << degrees[d])] ^= arithmetic.multiply(q, terms[d]);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        private void fromNovelBasis(RawArithmetic arithmetic, int[] coefficients) {
+            for (int i = 0, logLength = Integer.numberOfTrailingZeros(coefficients.length); i < logLength; i++) {
+                int half = 1 << i;
+                int[] degrees = termDegrees[i], terms = termCoefficients[i];
+                for (int offset = 0; offset < coefficients.length; offset += 2 * half) {
+                    for (int t = offset + half; t < offset + 2 * half; t++) {
+                        int q = coefficients[t];
+                        if (q != 0) {
+                            for (int d = 0; d < degrees.length; d++) {
+                                coefficients[t - half + (1 << degrees[d])] ^= arithmetic.multiply(q, terms[d]);
+                            }
+                        }
+                        coefficients[t] = arithmetic.multiply(q, leadingCoefficients[i]);
+                    }
+                }
+            }
+        }
+
+        private int skew(int i, int offset) {
+            int skew = 0;
+            for (int j = i + 1; offset >>> j != 0; j++) {
+                if ((offset >>> j & 1) != 0) {
+                    skew ^= skewTables[i][j - i - 1];
+                }
+            }
+            return skew;
+        }
+    }
+}
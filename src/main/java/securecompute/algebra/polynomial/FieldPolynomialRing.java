@@ -8,6 +8,14 @@ public class FieldPolynomialRing<E> extends PolynomialRing<E> implements IFieldP
         super(baseField);
     }
 
+    public FieldPolynomialRing(Field<E> baseField, int karatsubaThreshold, int toomCookThreshold) {
+        super(baseField, karatsubaThreshold, toomCookThreshold);
+    }
+
+    public FieldPolynomialRing(Field<E> baseField, int karatsubaThreshold, int toomCookThreshold, int fftThreshold) {
+        super(baseField, karatsubaThreshold, toomCookThreshold, fftThreshold);
+    }
+
     @Override
     public Field<E> getBaseRing() {
         return (Field<E>) super.getBaseRing();
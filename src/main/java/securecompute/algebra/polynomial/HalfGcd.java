@@ -0,0 +1,129 @@
+package securecompute.algebra.polynomial;
+
+import securecompute.algebra.EuclideanDomain.DivModResult;
+import securecompute.algebra.EuclideanDomain.PartialGcdExtResult;
+
+/**
+ * The extended Euclidean algorithm for polynomials over a field, by the half-GCD method: the quotients of the first
+ * half of the remainder sequence (by degree) depend only on the top half of the coefficients of the two inputs, so can
+ * be found recursively as a 2x2 cofactor matrix from truncated inputs, then applied to the full inputs with (fast)
+ * polynomial multiplication. This takes O(M(n) log n) time instead of O(n^2), where M(n) is the multiplication time.
+ */
+final class HalfGcd {
+    static final int HALF_GCD_THRESHOLD = 64;
+
+    private HalfGcd() {
+    }
+
+    static <E> PartialGcdExtResult<Polynomial<E>> lastPartialGcdExtResult(IFieldPolynomialRing<E> ring,
+                                                                           Polynomial<E> left, Polynomial<E> right) {
+        return partialGcdExtResult(ring, left, right, 0);
+    }
+
+    // The first partial result whose right-hand remainder has degree below the given bound. (Only the quotients of the
+    // remainders down to that degree are needed, so just the top coefficients of the inputs go to the half-GCD.)
+    static <E> PartialGcdExtResult<Polynomial<E>> partialGcdExtResult(IFieldPolynomialRing<E> ring,
+                                                                       Polynomial<E> left, Polynomial<E> right,
+                                                                       int degreeBound) {
+        PartialGcdExtResult<Polynomial<E>> r = PartialGcdExtResult.of(
+                ring.one(), ring.zero(), ring.zero(), ring.one(), left, right, false);
+
+        while (r.right().getDegree() >= Math.max(degreeBound, HALF_GCD_THRESHOLD)) {
+            if (r.right().getDegree() < r.left().getDegree()) {
+                int k = Math.max(2 * degreeBound - r.left().getDegree(), 0);
+                Matrix<E> matrix = halfGcd(ring, r.left().shift(-k), r.right().shift(-k));
+                r = PartialGcdExtResult.of(
+                        matrix.row0(ring, r.x(), r.s()), matrix.row0(ring, r.y(), r.t()),
+                        matrix.row1(ring, r.x(), r.s()), matrix.row1(ring, r.y(), r.t()),
+                        matrix.row0(ring, r.left(), r.right()), matrix.row1(ring, r.left(), r.right()),
+                        r.oddStep() != matrix.oddStep);
+                if (r.right().getDegree() < degreeBound) {
+                    break;
+                }
+            }
+            r = step(ring, r);
+        }
+        while (r.right().getDegree() >= degreeBound) {
+            r = step(ring, r);
+        }
+        return r;
+    }
+
+    private static <E> PartialGcdExtResult<Polynomial<E>> step(IFieldPolynomialRing<E> ring,
+                                                               PartialGcdExtResult<Polynomial<E>> r) {
+        DivModResult<Polynomial<E>> divModResult = ring.divMod(r.left(), r.right());
+        Polynomial<E> q = divModResult.getQuotient();
+        return PartialGcdExtResult.of(r.s(), r.t(),
+                ring.difference(r.x(), ring.product(r.s(), q)), ring.difference(r.y(), ring.product(r.t(), q)),
+                r.right(), divModResult.getRemainder(), !r.oddStep());
+    }
+
+    // The cofactor matrix taking (a, b) to the consecutive remainders (c, d) with deg c >= ceil(deg a / 2) > deg d:
+    private static <E> Matrix<E> halfGcd(IFieldPolynomialRing<E> ring, Polynomial<E> a, Polynomial<E> b) {
+        int m = (a.getDegree() + 1) / 2;
+        if (b.getDegree() < m) {
+            return Matrix.identity(ring);
+        }
+        if (a.getDegree() < HALF_GCD_THRESHOLD) {
+            Matrix<E> matrix = Matrix.identity(ring);
+            do {
+                DivModResult<Polynomial<E>> divModResult = ring.divMod(a, b);
+                matrix = matrix.step(ring, divModResult.getQuotient());
+                a = b;
+                b = divModResult.getRemainder();
+            } while (b.getDegree() >= m);
+            return matrix;
+        }
+
+        Matrix<E> matrix = halfGcd(ring, a.shift(-m), b.shift(-m));
+        Polynomial<E> c = matrix.row0(ring, a, b), d = matrix.row1(ring, a, b);
+        if (d.getDegree() < m) {
+            return matrix;
+        }
+        DivModResult<Polynomial<E>> divModResult = ring.divMod(c, d);
+        matrix = matrix.step(ring, divModResult.getQuotient());
+        c = d;
+        d = divModResult.getRemainder();
+        if (d.getDegree() < m) {
+            return matrix;
+        }
+        int k = 2 * m - c.getDegree();
+        return halfGcd(ring, c.shift(-k), d.shift(-k)).multiply(ring, matrix);
+    }
+
+    private static final class Matrix<E> {
+        final Polynomial<E> x, y, s, t;
+        final boolean oddStep; // whether the determinant is -1 rather than 1
+
+        Matrix(Polynomial<E> x, Polynomial<E> y, Polynomial<E> s, Polynomial<E> t, boolean oddStep) {
+            this.x = x;
+            this.y = y;
+            this.s = s;
+            this.t = t;
+            this.oddStep = oddStep;
+        }
+
+        static <E> Matrix<E> identity(IFieldPolynomialRing<E> ring) {
+            return new Matrix<>(ring.one(), ring.zero(), ring.zero(), ring.one(), false);
+        }
+
+        Polynomial<E> row0(IFieldPolynomialRing<E> ring, Polynomial<E> a, Polynomial<E> b) {
+            return ring.sum(ring.product(x, a), ring.product(y, b));
+        }
+
+        Polynomial<E> row1(IFieldPolynomialRing<E> ring, Polynomial<E> a, Polynomial<E> b) {
+            return ring.sum(ring.product(s, a), ring.product(t, b));
+        }
+
+        // Left-multiplies by the Euclidean step (a, b) -> (b, a - q * b):
+        Matrix<E> step(IFieldPolynomialRing<E> ring, Polynomial<E> q) {
+            return new Matrix<>(s, t, ring.difference(x, ring.product(q, s)), ring.difference(y, ring.product(q, t)),
+                    !oddStep);
+        }
+
+        Matrix<E> multiply(IFieldPolynomialRing<E> ring, Matrix<E> other) {
+            return new Matrix<>(row0(ring, other.x, other.s), row0(ring, other.y, other.t),
+                    row1(ring, other.x, other.s), row1(ring, other.y, other.t), oddStep != other.oddStep);
+        }
+    }
+}
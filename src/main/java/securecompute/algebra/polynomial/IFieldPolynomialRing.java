@@ -5,6 +5,9 @@ import securecompute.algebra.EuclideanDomain;
 import securecompute.algebra.Field;
 import securecompute.algebra.module.VectorSpace;
 
+import java.util.List;
+import java.util.function.UnaryOperator;
+
 public interface IFieldPolynomialRing<E> extends IPolynomialRing<E>, EuclideanDomain<Polynomial<E>>, VectorSpace<Polynomial<E>, E> {
 
     @Override
@@ -23,26 +26,32 @@ public interface IFieldPolynomialRing<E> extends IPolynomialRing<E>, EuclideanDo
 
     @Override
     default DivModResult<Polynomial<E>> divMod(Polynomial<E> dividend, Polynomial<E> divisor) {
-        if (divisor.getDegree() < 0) {
-            throw new ArithmeticException("Division by zero");
-        }
-
-        int divisorDeg = divisor.getDegree();
-        E divisorMsc = divisor.getCoefficients().get(divisorDeg);
-
-        Polynomial<E> quotient = zero();
-        for (int dividendDeg; (dividendDeg = dividend.getDegree()) >= divisorDeg; ) {
-            E dividendMsc = dividend.getCoefficients().get(dividendDeg);
-//            Polynomial<E> scalar = polynomial(ImmutableList.of(getBaseRing().quotient(dividendMsc, divisorMsc)));
-            E scalar = getBaseRing().quotient(dividendMsc, divisorMsc);
-            Polynomial<E> shiftedScalar = polynomial(ImmutableList.of(scalar)).shift(dividendDeg - divisorDeg);
-
-            // FIXME: This could potentially result in a never-ending loop if there are floating-point rounding errors:
-//            dividend = dividend.subtract(divisor.multiply(shiftedScalar));
-            dividend = dividend.subtract(divisor.scalarMultiply(scalar).shift(dividendDeg - divisorDeg));
-            // TODO: Consider replacing this O(n^2) construction of the quotient with a builder:
-            quotient = quotient.add(shiftedScalar);
-        }
-        return DivModResult.of(quotient, dividend);
+        return divider(divisor).divMod(dividend);
+    }
+
+    @Override
+    default UnaryOperator<Polynomial<E>> reducer(Polynomial<E> modulus) {
+        return divider(modulus)::mod;
+    }
+
+    @Override
+    default PartialGcdExtResult<Polynomial<E>> lastPartialGcdExtResult(Polynomial<E> left, Polynomial<E> right) {
+        return HalfGcd.lastPartialGcdExtResult(this, left, right);
+    }
+
+    // The first partial extended Euclidean result with a remainder of degree below the given bound, as needed for
+    // rational reconstruction (e.g. solving the key equation when decoding Reed-Solomon codes).
+    default PartialGcdExtResult<Polynomial<E>> partialGcdExtResult(Polynomial<E> left, Polynomial<E> right,
+                                                                   int degreeBound) {
+        return HalfGcd.partialGcdExtResult(this, left, right, degreeBound);
+    }
+
+    // The distinct roots of a nonzero polynomial, for a finite base field.
+    default List<E> roots(Polynomial<E> polynomial) {
+        return RootFinding.roots(this, polynomial);
+    }
+
+    default PolynomialDivider<E> divider(Polynomial<E> divisor) {
+        return new PolynomialDivider<>(this, divisor);
     }
 }
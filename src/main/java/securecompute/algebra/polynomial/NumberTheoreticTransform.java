@@ -0,0 +1,176 @@
+package securecompute.algebra.polynomial;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import securecompute.ShallowCopyable;
+import securecompute.algebra.Exponentiator;
+import securecompute.algebra.Field;
+import securecompute.algebra.FiniteField;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Iterative radix-2 number-theoretic transforms over a finite field, for fast polynomial multiplication when the
+ * multiplicative group has a large 2-power subgroup. Instances are cached per field, with the twiddle factors for the
+ * largest transform length so far held in a single table that smaller transforms stride through.
+ */
+public final class NumberTheoreticTransform<E> {
+    private static final int MAX_LOG_LENGTH = 30;
+
+    private static final Function<FiniteField<?>, NumberTheoreticTransform<?>> CACHE = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build(CacheLoader.from(NumberTheoreticTransform::computeNumberTheoreticTransform));
+
+    private final FiniteField<E> field;
+    private final int maxLogLength;
+    private final E root; // a primitive 2^maxLogLength-th root of unity
+    private volatile E[] twiddles; // w^k for k < 2^(l - 1), where w is a primitive 2^l-th root of unity
+
+    private NumberTheoreticTransform(FiniteField<E> field, int maxLogLength, E root) {
+        this.field = field;
+        this.maxLogLength = maxLogLength;
+        this.root = root;
+        twiddles = newArray(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> NumberTheoreticTransform<E> numberTheoreticTransform(FiniteField<E> field) {
+        return (NumberTheoreticTransform<E>) CACHE.apply(field);
+    }
+
+    private static <E> NumberTheoreticTransform<E> computeNumberTheoreticTransform(FiniteField<E> field) {
+        BigInteger qMinus1 = field.size().subtract(BigInteger.ONE);
+        int n = qMinus1.getLowestSetBit();
+        if (n == 0) {
+            return new NumberTheoreticTransform<>(field, 0, null);
+        }
+
+        // Attempt to replace the field with a clone at this point, to prevent strong references from
+        // cache values to keys via the field elements held in the returned NumberTheoreticTransform instance.
+        FiniteField<E> clonedField = ShallowCopyable.tryClone(field);
+
+        // Any quadratic non-residue raised to the odd part of q - 1 is a primitive 2^n-th root of unity. (This avoids
+        // having to factorise q - 1 to find a primitive element.)
+        Exponentiator legendrePower = new Exponentiator(qMinus1.shiftRight(1));
+        Random random = new Random(0);
+        E nonResidue;
+        do {
+            nonResidue = clonedField.sampleUniformly(random);
+        } while (legendrePower.power(clonedField, nonResidue).equals(clonedField.one())
+                || nonResidue.equals(clonedField.zero()));
+
+        int maxLogLength = Math.min(n, MAX_LOG_LENGTH);
+        E root = clonedField.power(nonResidue, qMinus1.shiftRight(maxLogLength));
+        return new NumberTheoreticTransform<>(clonedField, maxLogLength, root);
+    }
+
+    public int maxLength() {
+        return root != null ? 1 << maxLogLength : 0;
+    }
+
+    E[] product(Field<E> field, E[] left, E[] right) {
+        int resultLength = left.length + right.length - 1;
+        int logLength = 32 - Integer.numberOfLeadingZeros(resultLength - 1), length = 1 << logLength;
+
+        E[] a = padded(field, left, length), b = padded(field, right, length);
+        transform(field, a);
+        transform(field, b);
+        for (int i = 0; i < length; i++) {
+            a[i] = field.product(a[i], b[i]);
+        }
+        inverseTransform(field, a);
+        return Arrays.copyOf(a, resultLength);
+    }
+
+    // Evaluates the polynomial with the given coefficients at each power w^i of a primitive (length)-th root of unity
+    // w, in place, where w is the same for every call with the same length.
+    public void transform(Field<E> field, E[] values) {
+        int length = values.length, logLength = Integer.numberOfTrailingZeros(length);
+        E[] twiddles = twiddles(logLength);
+
+        for (int i = 1, j = 0; i < length; i++) {
+            int bit = length >> 1;
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+            j ^= bit;
+            if (i < j) {
+                E tmp = values[i];
+                values[i] = values[j];
+                values[j] = tmp;
+            }
+        }
+
+        for (int half = 1; half < length; half <<= 1) {
+            int stride = twiddles.length / half;
+            for (int i = 0; i < length; i += 2 * half) {
+                for (int j = 0; j < half; j++) {
+                    E u = values[i + j], v = values[i + j + half];
+                    v = j > 0 ? field.product(v, twiddles[j * stride]) : v;
+                    values[i + j] = field.sum(u, v);
+                    values[i + j + half] = field.difference(u, v);
+                }
+            }
+        }
+    }
+
+    // Recovers the coefficients of a polynomial from its values at each power w^i, in place.
+    public void inverseTransform(Field<E> field, E[] values) {
+        transform(field, values);
+
+        // the inverse transform is the forward transform with the outputs at indices i & length - i swapped:
+        int length = values.length;
+        E lengthInverse = field.reciprocal(field.fromLong(length));
+        for (int i = 0; i <= length / 2; i++) {
+            int j = -i & length - 1;
+            E tmp = field.product(values[i], lengthInverse);
+            values[i] = field.product(values[j], lengthInverse);
+            values[j] = i != j ? tmp : values[i];
+        }
+    }
+
+    private E[] twiddles(int logLength) {
+        E[] table = twiddles;
+        if (table.length * 2 < 1 << logLength) {
+            synchronized (this) {
+                table = twiddles;
+                if (table.length * 2 < 1 << logLength) {
+                    twiddles = table = computeTwiddles(logLength);
+                }
+            }
+        }
+        return table;
+    }
+
+    private E[] computeTwiddles(int logLength) {
+        if (logLength > maxLogLength) {
+            throw new IllegalArgumentException("Transform length too large: 2^" + logLength);
+        }
+        E w = root;
+        for (int i = logLength; i < maxLogLength; i++) {
+            w = field.product(w, w);
+        }
+        E[] table = newArray(logLength > 0 ? 1 << logLength - 1 : 0);
+        for (int k = 0; k < table.length; k++) {
+            table[k] = k > 0 ? field.product(table[k - 1], w) : field.one();
+        }
+        return table;
+    }
+
+    private static <E> E[] padded(Field<E> field, E[] values, int length) {
+        E[] result = newArray(length);
+        System.arraycopy(values, 0, result, 0, values.length);
+        for (int i = values.length; i < length; i++) {
+            result[i] = field.zero();
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> E[] newArray(int length) {
+        return (E[]) new Object[length];
+    }
+}
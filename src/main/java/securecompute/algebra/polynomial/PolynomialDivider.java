@@ -0,0 +1,120 @@
+package securecompute.algebra.polynomial;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import securecompute.algebra.EuclideanDomain.DivModResult;
+import securecompute.algebra.Field;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Division by a fixed polynomial over a field. Small divisions are done by long division on a flat coefficient array.
+ * Larger ones use Newton iteration to find the inverse of the reversed divisor modulo {@code x^l} (enough to read off a
+ * quotient of {@code l} coefficients), so that each division costs a couple of (fast) polynomial multiplications. The
+ * inverse is kept for reuse, being extended as needed whenever a longer quotient is required.
+ */
+public final class PolynomialDivider<E> {
+    static final int NEWTON_DIVISION_THRESHOLD = 64;
+
+    private final IFieldPolynomialRing<E> ring;
+    private final Polynomial<E> divisor;
+    private final E leadingCoefficientInverse;
+    private Polynomial<E> reversedInverse; // guarded by 'this'
+    private int reversedInversePrecision;
+
+    public PolynomialDivider(IFieldPolynomialRing<E> ring, Polynomial<E> divisor) {
+        if (divisor.getDegree() < 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        this.ring = ring;
+        this.divisor = divisor;
+        leadingCoefficientInverse = ring.getBaseRing().reciprocal(divisor.getCoefficients().get(divisor.getDegree()));
+    }
+
+    public Polynomial<E> getDivisor() {
+        return divisor;
+    }
+
+    public Polynomial<E> div(Polynomial<E> dividend) {
+        return divMod(dividend).getQuotient();
+    }
+
+    public Polynomial<E> mod(Polynomial<E> dividend) {
+        return divMod(dividend).getRemainder();
+    }
+
+    public DivModResult<Polynomial<E>> divMod(Polynomial<E> dividend) {
+        int m = divisor.getDegree(), n = dividend.getDegree(), l = n - m + 1;
+        if (l <= 0) {
+            return DivModResult.of(ring.zero(), dividend);
+        }
+        if (Math.min(l, m) < NEWTON_DIVISION_THRESHOLD) {
+            return longDivision(dividend);
+        }
+
+        // The reversed quotient is the top l coefficients of the dividend, reversed, times the reversed inverse:
+        List<E> dividendCoefficients = dividend.getCoefficients();
+        Polynomial<E> reversedTop = ring.polynomial(Lists.reverse(dividendCoefficients.subList(m, n + 1)));
+        List<E> reversedQuotient = truncated(ring.product(reversedTop, reversedInverse(l)), l).getCoefficients();
+
+        E zero = ring.getBaseRing().zero();
+        E[] quotientCoefficients = newArray(l);
+        for (int i = 0; i < l; i++) {
+            quotientCoefficients[l - 1 - i] = i < reversedQuotient.size() ? reversedQuotient.get(i) : zero;
+        }
+        Polynomial<E> quotient = ring.polynomial(quotientCoefficients);
+        Polynomial<E> remainder = truncated(ring.difference(dividend, ring.product(divisor, quotient)), m);
+        return DivModResult.of(quotient, remainder);
+    }
+
+    private DivModResult<Polynomial<E>> longDivision(Polynomial<E> dividend) {
+        Field<E> field = ring.getBaseRing();
+        List<E> divisorCoefficients = divisor.getCoefficients();
+        int m = divisor.getDegree(), n = dividend.getDegree();
+
+        E[] remainder = PolynomialRing.toArray(dividend), quotient = newArray(n - m + 1);
+        for (int i = n - m; i >= 0; i--) {
+            E c = quotient[i] = field.product(remainder[i + m], leadingCoefficientInverse);
+            if (!c.equals(field.zero())) {
+                for (int j = 0; j < m; j++) {
+                    remainder[i + j] = field.difference(remainder[i + j], field.product(c, divisorCoefficients.get(j)));
+                }
+            }
+        }
+        return DivModResult.of(ring.polynomial(quotient), ring.polynomial(Arrays.asList(remainder).subList(0, m)));
+    }
+
+    // The inverse of the reversed divisor mod x^precision, by the Newton iteration g -> g * (2 - f * g):
+    private synchronized Polynomial<E> reversedInverse(int precision) {
+        if (reversedInversePrecision < precision) {
+            Polynomial<E> f = ring.polynomial(Lists.reverse(divisor.getCoefficients()));
+            Polynomial<E> two = ring.polynomial(ImmutableList.of(ring.getBaseRing().fromLong(2)));
+            Polynomial<E> g = reversedInverse;
+            int k = reversedInversePrecision;
+            if (k == 0) {
+                g = ring.polynomial(ImmutableList.of(leadingCoefficientInverse));
+                k = 1;
+            }
+            while (k < precision) {
+                k = Math.min(2 * k, precision);
+                Polynomial<E> fg = truncated(ring.product(truncated(f, k), g), k);
+                g = truncated(ring.product(g, ring.difference(two, fg)), k);
+            }
+            reversedInverse = g;
+            reversedInversePrecision = k;
+        }
+        return reversedInverse;
+    }
+
+    // Reduces mod x^length:
+    private Polynomial<E> truncated(Polynomial<E> polynomial, int length) {
+        List<E> coefficients = polynomial.getCoefficients();
+        return coefficients.size() > length ? ring.polynomial(coefficients.subList(0, length)) : polynomial;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> E[] newArray(int length) {
+        return (E[]) new Object[length];
+    }
+}
@@ -0,0 +1,178 @@
+package securecompute.algebra.polynomial;
+
+import com.google.common.collect.ImmutableList;
+import securecompute.algebra.Ring;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static securecompute.algebra.polynomial.BasePolynomialExpression.constant;
+import static securecompute.algebra.polynomial.BasePolynomialExpression.product;
+import static securecompute.algebra.polynomial.BasePolynomialExpression.sum;
+import static securecompute.algebra.polynomial.BasePolynomialExpression.variable;
+
+/**
+ * Rewrites polynomial expressions into a canonical sparse form: a sum of monomials, each a product of a coefficient
+ * (omitted if one) and a sorted list of factors, with nested sums & products flattened, constants folded and zero
+ * terms dropped. Products are only multiplied out while the result has at most a given number of monomials, beyond
+ * which they are kept as (normalised) opaque factors, to avoid exponential blowup. Such factors are ordered by first
+ * appearance, so the form is only canonical per normaliser instance. All subterms are hash-consed across every
+ * expression passed to the same normaliser, so that equal subterms are shared as a single instance.
+ */
+public final class PolynomialExpressionNormaliser<E> {
+    public static final int DEFAULT_MAX_MONOMIALS = 64;
+
+    private static final Comparator<List<Integer>> MONOMIAL_ORDER = Comparator.<List<Integer>>comparingInt(List::size)
+            .thenComparing((a, b) -> {
+                for (int i = 0; i < a.size(); i++) {
+                    int c = Integer.compare(a.get(i), b.get(i));
+                    if (c != 0) {
+                        return c;
+                    }
+                }
+                return 0;
+            });
+
+    private final Ring<E> ring;
+    private final int maxMonomials;
+    private final Map<PolynomialExpression<E>, PolynomialExpression<E>> internedTerms = new HashMap<>();
+    private final Map<PolynomialExpression<E>, Integer> opaqueFactorIds = new HashMap<>();
+    private final List<PolynomialExpression<E>> opaqueFactors = new ArrayList<>();
+
+    public PolynomialExpressionNormaliser(Ring<E> ring) {
+        this(ring, DEFAULT_MAX_MONOMIALS);
+    }
+
+    public PolynomialExpressionNormaliser(Ring<E> ring, int maxMonomials) {
+        checkArgument(maxMonomials > 0, "Non-positive monomial limit: %s", maxMonomials);
+        this.ring = ring;
+        this.maxMonomials = maxMonomials;
+    }
+
+    public PolynomialExpression<E> normalise(PolynomialExpression<E> expression) {
+        return toExpression(expand(expression));
+    }
+
+    // Monomials are sorted lists of factor ids: a variable index if non-negative, else -1 - the opaque factor index.
+    private Map<List<Integer>, E> expand(PolynomialExpression<E> expression) {
+        Map<List<Integer>, E> result = new TreeMap<>(MONOMIAL_ORDER);
+        switch (expression.expressionType()) {
+            case CONSTANT:
+                addTerm(result, ImmutableList.of(), expression.constantValue());
+                return result;
+            case VARIABLE:
+                addTerm(result, ImmutableList.of(expression.variableIndex()), ring.one());
+                return result;
+            case SUM:
+                for (PolynomialExpression<E> term : expression.subTerms()) {
+                    expand(term).forEach((monomial, coefficient) -> addTerm(result, monomial, coefficient));
+                }
+                return result;
+            case PRODUCT:
+                List<Map<List<Integer>, E>> factors = new ArrayList<>();
+                long size = 1;
+                for (PolynomialExpression<E> factor : expression.subTerms()) {
+                    Map<List<Integer>, E> expandedFactor = expand(factor);
+                    factors.add(expandedFactor);
+                    size = Math.min(size * expandedFactor.size(), maxMonomials + 1L);
+                }
+                if (size > maxMonomials) {
+                    return opaqueProduct(factors);
+                }
+                addTerm(result, ImmutableList.of(), ring.one());
+                Map<List<Integer>, E> acc = result;
+                for (Map<List<Integer>, E> factor : factors) {
+                    Map<List<Integer>, E> next = new TreeMap<>(MONOMIAL_ORDER);
+                    acc.forEach((m1, c1) -> factor.forEach((m2, c2) ->
+                            addTerm(next, mergeSorted(m1, m2), ring.product(c1, c2))));
+                    acc = next;
+                }
+                return acc;
+        }
+        throw new AssertionError(expression.expressionType()); // unreachable
+    }
+
+    // Too large to multiply out, so keep the product of the (already expanded) factors as a single opaque factor, with
+    // any constant factors folded into its coefficient:
+    private Map<List<Integer>, E> opaqueProduct(List<Map<List<Integer>, E>> factors) {
+        E coefficient = ring.one();
+        List<Map<List<Integer>, E>> nonConstantFactors = new ArrayList<>();
+        for (Map<List<Integer>, E> factor : factors) {
+            if (factor.size() == 1 && factor.containsKey(ImmutableList.<Integer>of())) {
+                coefficient = ring.product(coefficient, factor.get(ImmutableList.<Integer>of()));
+            } else {
+                nonConstantFactors.add(factor);
+            }
+        }
+        Map<List<Integer>, E> result = new TreeMap<>(MONOMIAL_ORDER);
+        if (nonConstantFactors.size() == 1) {
+            E c = coefficient;
+            nonConstantFactors.get(0).forEach((monomial, d) -> addTerm(result, monomial, ring.product(c, d)));
+            return result;
+        }
+        List<PolynomialExpression<E>> normalisedFactors = new ArrayList<>();
+        for (Map<List<Integer>, E> factor : nonConstantFactors) {
+            normalisedFactors.add(toExpression(factor));
+        }
+        normalisedFactors.sort(Comparator.comparingInt(this::factorId));
+        addTerm(result, ImmutableList.of(factorId(intern(product(normalisedFactors)))), coefficient);
+        return result;
+    }
+
+    private void addTerm(Map<List<Integer>, E> terms, List<Integer> monomial, E coefficient) {
+        E sum = terms.containsKey(monomial) ? ring.sum(terms.get(monomial), coefficient) : coefficient;
+        if (sum.equals(ring.zero())) {
+            terms.remove(monomial);
+        } else {
+            terms.put(monomial, sum);
+        }
+    }
+
+    private static List<Integer> mergeSorted(List<Integer> left, List<Integer> right) {
+        ImmutableList.Builder<Integer> builder = ImmutableList.builderWithExpectedSize(left.size() + right.size());
+        int i = 0, j = 0;
+        while (i < left.size() || j < right.size()) {
+            builder.add(j >= right.size() || i < left.size() && left.get(i) <= right.get(j)
+                    ? left.get(i++) : right.get(j++));
+        }
+        return builder.build();
+    }
+
+    private PolynomialExpression<E> toExpression(Map<List<Integer>, E> terms) {
+        List<PolynomialExpression<E>> monomials = new ArrayList<>(terms.size());
+        terms.forEach((monomial, coefficient) -> {
+            List<PolynomialExpression<E>> factors = new ArrayList<>(monomial.size() + 1);
+            if (monomial.isEmpty() || !coefficient.equals(ring.one())) {
+                factors.add(intern(constant(coefficient)));
+            }
+            for (int id : monomial) {
+                factors.add(id >= 0 ? intern(variable(id)) : opaqueFactors.get(-1 - id));
+            }
+            monomials.add(factors.size() == 1 ? factors.get(0) : intern(product(factors)));
+        });
+        return monomials.isEmpty() ? intern(constant(ring.zero()))
+                : monomials.size() == 1 ? monomials.get(0)
+                : intern(sum(monomials));
+    }
+
+    private int factorId(PolynomialExpression<E> factor) {
+        if (factor.expressionType() == PolynomialExpression.Type.VARIABLE) {
+            return factor.variableIndex();
+        }
+        Integer id = opaqueFactorIds.get(factor);
+        if (id == null) {
+            opaqueFactorIds.put(factor, id = -1 - opaqueFactors.size());
+            opaqueFactors.add(factor);
+        }
+        return id;
+    }
+
+    private PolynomialExpression<E> intern(PolynomialExpression<E> term) {
+        return internedTerms.computeIfAbsent(term, t -> t);
+    }
+}
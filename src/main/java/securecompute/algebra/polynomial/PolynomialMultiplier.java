@@ -0,0 +1,206 @@
+package securecompute.algebra.polynomial;
+
+import securecompute.algebra.Field;
+import securecompute.algebra.FiniteField;
+import securecompute.algebra.Ring;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Polynomial multiplication on flat coefficient arrays (little-endian, as in {@link Polynomial#getCoefficients()}),
+ * using Karatsuba above one threshold and Toom-3 above another, with schoolbook multiplication below both. Above a
+ * third threshold, products over finite fields with enough 2-power roots of unity use a number-theoretic transform,
+ * and above a fourth, those over large enough fields of characteristic two use an additive FFT.
+ * <p>
+ * Toom-3 needs exact division by 2 and 3, so is only used over fields of characteristic other than 2 or 3. Within
+ * the arrays, {@code null} stands in for zero wherever nothing has been added to a coefficient yet, to save ring ops.
+ */
+final class PolynomialMultiplier<E> {
+
+    private final Ring<E> ring;
+    private final int karatsubaThreshold;
+    private final int toomCookThreshold;
+    private final int nttThreshold;
+    private final int additiveFftThreshold;
+    private final E half, third;
+
+    PolynomialMultiplier(Ring<E> ring, int karatsubaThreshold, int toomCookThreshold, int nttThreshold,
+                         int additiveFftThreshold) {
+        checkArgument(karatsubaThreshold >= 2, "Karatsuba threshold too small: %s", karatsubaThreshold);
+        checkArgument(toomCookThreshold >= 3, "Toom-Cook threshold too small: %s", toomCookThreshold);
+        checkArgument(nttThreshold >= 2, "NTT threshold too small: %s", nttThreshold);
+        checkArgument(additiveFftThreshold >= 2, "Additive FFT threshold too small: %s", additiveFftThreshold);
+        this.ring = ring;
+        this.karatsubaThreshold = karatsubaThreshold;
+        this.toomCookThreshold = toomCookThreshold;
+        this.nttThreshold = nttThreshold;
+        this.additiveFftThreshold = additiveFftThreshold;
+
+        if (ring instanceof Field && !ring.fromLong(6).equals(ring.zero())) {
+            Field<E> field = (Field<E>) ring;
+            half = field.reciprocal(field.fromLong(2));
+            third = field.reciprocal(field.fromLong(3));
+        } else {
+            half = third = null;
+        }
+    }
+
+    E[] product(E[] left, E[] right) {
+        int minLength = Math.min(left.length, right.length), maxLength = Math.max(left.length, right.length);
+        if (minLength >= Math.min(nttThreshold, additiveFftThreshold) && ring instanceof FiniteField) {
+            // only look up (and possibly compute) the transforms once the operands are large enough to need them:
+            FiniteField<E> field = (FiniteField<E>) ring;
+            if (minLength >= nttThreshold) {
+                NumberTheoreticTransform<E> ntt = NumberTheoreticTransform.numberTheoreticTransform(field);
+                if (left.length + right.length - 1 <= ntt.maxLength()) {
+                    return ntt.product(field, left, right);
+                }
+            }
+            if (minLength >= additiveFftThreshold) {
+                AdditiveFft<E> fft = AdditiveFft.additiveFft(field);
+                if (left.length + right.length - 1 <= fft.maxLength()) {
+                    return fft.product(field, left, right);
+                }
+            }
+        }
+        if (minLength < karatsubaThreshold) {
+            return schoolbookProduct(left, right);
+        }
+        int m = (maxLength + 2) / 3;
+        if (half != null && minLength >= toomCookThreshold && minLength > 2 * m) {
+            return toomCookProduct(left, right, m);
+        }
+        return karatsubaProduct(left, right);
+    }
+
+    private E[] schoolbookProduct(E[] left, E[] right) {
+        E[] result = newArray(left.length + right.length - 1);
+        for (int i = 0; i < left.length; i++) {
+            for (int j = 0; j < right.length; j++) {
+                E p = ring.product(left[i], right[j]);
+                result[i + j] = i == 0 || j == right.length - 1 ? p : ring.sum(result[i + j], p);
+            }
+        }
+        return result;
+    }
+
+    private E[] karatsubaProduct(E[] left, E[] right) {
+        int m = (Math.max(left.length, right.length) + 1) / 2;
+        E[] result = newArray(left.length + right.length - 1);
+
+        if (left.length <= m || right.length <= m) {
+            // unbalanced, so only split the longer operand:
+            if (left.length <= m) {
+                addShifted(result, product(left, slice(right, 0, m)), 0);
+                addShifted(result, product(left, slice(right, m, right.length)), m);
+            } else {
+                addShifted(result, product(slice(left, 0, m), right), 0);
+                addShifted(result, product(slice(left, m, left.length), right), m);
+            }
+            return fillZeros(result);
+        }
+
+        E[] a0 = slice(left, 0, m), a1 = slice(left, m, left.length);
+        E[] b0 = slice(right, 0, m), b1 = slice(right, m, right.length);
+        E[] z0 = product(a0, b0), z2 = product(a1, b1);
+        E[] z1 = subtract(subtract(product(sum(a0, a1), sum(b0, b1)), z0), z2);
+
+        addShifted(result, z0, 0);
+        addShifted(result, z1, m);
+        addShifted(result, z2, 2 * m);
+        return fillZeros(result);
+    }
+
+    // Toom-3 with evaluation points 0, 1, -1, -2 & infinity, and Bodrato's interpolation sequence:
+    private E[] toomCookProduct(E[] left, E[] right, int m) {
+        E[][] p = evaluate(left, m), q = evaluate(right, m);
+        E[] r0 = product(p[0], q[0]), r1 = product(p[1], q[1]), rm1 = product(p[2], q[2]);
+        E[] rm2 = product(p[3], q[3]), rInf = product(p[4], q[4]);
+
+        E[] t3 = scale(subtract(rm2, r1), third);
+        E[] t1 = scale(subtract(r1, rm1), half);
+        E[] t2 = subtract(rm1, r0);
+        t3 = sum(scale(subtract(t2, t3), half), sum(rInf, rInf));
+        t2 = subtract(sum(t2, t1), rInf);
+        t1 = subtract(t1, t3);
+
+        E[] result = newArray(left.length + right.length - 1);
+        addShifted(result, r0, 0);
+        addShifted(result, t1, m);
+        addShifted(result, t2, 2 * m);
+        addShifted(result, t3, 3 * m);
+        addShifted(result, rInf, 4 * m);
+        return fillZeros(result);
+    }
+
+    private E[][] evaluate(E[] coefficients, int m) {
+        E[] a0 = slice(coefficients, 0, m), a1 = slice(coefficients, m, 2 * m);
+        E[] a2 = slice(coefficients, 2 * m, coefficients.length);
+        E[] a02 = sum(a0, a2), pm1 = subtract(a02, a1), pm1a2 = sum(pm1, a2);
+        E[][] values = newArray2(5);
+        values[0] = a0;
+        values[1] = sum(a02, a1);
+        values[2] = pm1;
+        values[3] = subtract(sum(pm1a2, pm1a2), a0);
+        values[4] = a2;
+        return values;
+    }
+
+    private E[] sum(E[] left, E[] right) {
+        E[] result = newArray(Math.max(left.length, right.length));
+        for (int i = 0; i < result.length; i++) {
+            result[i] = i >= right.length ? left[i] : i >= left.length ? right[i] : ring.sum(left[i], right[i]);
+        }
+        return result;
+    }
+
+    private E[] subtract(E[] left, E[] right) {
+        E[] result = newArray(Math.max(left.length, right.length));
+        for (int i = 0; i < result.length; i++) {
+            result[i] = i >= right.length ? left[i]
+                    : i >= left.length ? ring.negative(right[i]) : ring.difference(left[i], right[i]);
+        }
+        return result;
+    }
+
+    private E[] scale(E[] coefficients, E factor) {
+        E[] result = newArray(coefficients.length);
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ring.product(coefficients[i], factor);
+        }
+        return result;
+    }
+
+    // Adds src * X^shift into dst, dropping any terms beyond the end of dst (which must be zero if the product fits).
+    private void addShifted(E[] dst, E[] src, int shift) {
+        for (int i = 0, end = Math.min(src.length, dst.length - shift); i < end; i++) {
+            E x = dst[i + shift];
+            dst[i + shift] = x == null ? src[i] : ring.sum(x, src[i]);
+        }
+    }
+
+    private E[] fillZeros(E[] coefficients) {
+        for (int i = 0; i < coefficients.length; i++) {
+            if (coefficients[i] == null) {
+                coefficients[i] = ring.zero();
+            }
+        }
+        return coefficients;
+    }
+
+    private static <E> E[] slice(E[] coefficients, int from, int to) {
+        return Arrays.copyOfRange(coefficients, from, to);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> E[] newArray(int length) {
+        return (E[]) new Object[length];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> E[][] newArray2(int length) {
+        return (E[][]) new Object[length][];
+    }
+}
@@ -6,6 +6,7 @@ import com.google.common.collect.Streams;
 import securecompute.algebra.Ring;
 
 import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -15,13 +16,40 @@ public class PolynomialRing<E> implements IPolynomialRing<E> {
 
     // FIXME: Implement 'equals()' & 'hashCode()' for this ring structure.
 
+    static final int DEFAULT_KARATSUBA_THRESHOLD = 16;
+    static final int DEFAULT_TOOM_COOK_THRESHOLD = 96;
+    static final int DEFAULT_NTT_THRESHOLD = 256;
+    static final int DEFAULT_ADDITIVE_FFT_THRESHOLD = 64;
+
     private final Ring<E> baseRing;
     private final Element zero, one;
+    private final PolynomialMultiplier<E> multiplier;
 
     public PolynomialRing(Ring<E> baseRing) {
+        this(baseRing, DEFAULT_KARATSUBA_THRESHOLD, DEFAULT_TOOM_COOK_THRESHOLD);
+    }
+
+    // Polynomials with fewer coefficients than the given thresholds are multiplied by schoolbook or Karatsuba
+    // multiplication respectively, rather than Karatsuba or Toom-3 (the latter only for characteristic above 3).
+    public PolynomialRing(Ring<E> baseRing, int karatsubaThreshold, int toomCookThreshold) {
+        this(baseRing, karatsubaThreshold, toomCookThreshold, DEFAULT_NTT_THRESHOLD, DEFAULT_ADDITIVE_FFT_THRESHOLD);
+    }
+
+    // Above the FFT threshold, polynomials over finite fields with enough 2-power roots of unity are multiplied by
+    // number-theoretic transform instead, and those over large enough fields of characteristic two by additive FFT.
+    public PolynomialRing(Ring<E> baseRing, int karatsubaThreshold, int toomCookThreshold, int fftThreshold) {
+        this(baseRing, karatsubaThreshold, toomCookThreshold, fftThreshold, fftThreshold);
+    }
+
+    // As above, but with separate thresholds for the two kinds of FFT. (The additive FFT pays off much sooner, over
+    // GF(2^8) in particular, as it can never multiply polynomials with more than 128 coefficients there.)
+    public PolynomialRing(Ring<E> baseRing, int karatsubaThreshold, int toomCookThreshold, int nttThreshold,
+                          int additiveFftThreshold) {
         this.baseRing = baseRing;
         this.zero = new Element(ImmutableList.of());
         this.one = new Element(ImmutableList.of(baseRing.one()));
+        this.multiplier = new PolynomialMultiplier<>(baseRing, karatsubaThreshold, toomCookThreshold, nttThreshold,
+                additiveFftThreshold);
     }
 
     @Override
@@ -75,7 +103,6 @@ public class PolynomialRing<E> implements IPolynomialRing<E> {
 
     @Override
     public Element product(Polynomial<E> left, Polynomial<E> right) {
-        // TODO: Use Karatsuba multiplication rather than this naive O(n^2) divide & conquer method ...
         if (left.getDegree() < 0 || right.getDegree() < 0) {
             return zero;
         }
@@ -91,14 +118,12 @@ public class PolynomialRing<E> implements IPolynomialRing<E> {
                     .map(elt -> baseRing.product(elt, rightElt))
                     .collect(ImmutableList.toImmutableList()));
         }
+        return polynomial(Arrays.asList(multiplier.product(toArray(left), toArray(right))));
+    }
 
-        List<E> leftCoefficients = left.getCoefficients();
-        int leftShift = leftCoefficients.size() / 2;
-
-        Element leftHalfA = polynomial(leftCoefficients.subList(0, leftShift));
-        Element leftHalfB = polynomial(leftCoefficients.subList(leftShift, leftCoefficients.size()));
-
-        return sumShifted(leftHalfA.multiply(right), leftHalfB.multiply(right), 0, leftShift);
+    @SuppressWarnings("unchecked")
+    static <E> E[] toArray(Polynomial<E> polynomial) {
+        return (E[]) polynomial.getCoefficients().toArray();
     }
 
     @Override
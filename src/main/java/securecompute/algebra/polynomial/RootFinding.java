@@ -0,0 +1,104 @@
+package securecompute.algebra.polynomial;
+
+import com.google.common.collect.ImmutableList;
+import securecompute.algebra.FiniteField;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * The distinct roots of a polynomial over a finite field, by exhaustive search for small fields, else by Cantor &
+ * Zassenhaus' equal-degree splitting: the product of the distinct linear factors of {@code f} is
+ * {@code g = gcd(f, x^q - x)}, which is split recursively by taking its GCD with a polynomial vanishing on a random
+ * half of the field, namely {@code (x + c)^((q - 1) / 2) - 1} for odd q, or the trace of {@code c * x} for even q.
+ */
+final class RootFinding {
+    static final int EXHAUSTIVE_SEARCH_THRESHOLD = 256;
+
+    private RootFinding() {
+    }
+
+    static <E> List<E> roots(IFieldPolynomialRing<E> ring, Polynomial<E> polynomial) {
+        checkArgument(ring.getBaseRing() instanceof FiniteField, "Base field is not finite");
+        checkArgument(polynomial.getDegree() >= 0, "Every element is a root of zero");
+        FiniteField<E> field = (FiniteField<E>) ring.getBaseRing();
+        if (polynomial.getDegree() == 0) {
+            return ImmutableList.of();
+        }
+        if (field.size().compareTo(BigInteger.valueOf(EXHAUSTIVE_SEARCH_THRESHOLD)) <= 0) {
+            return field.getElements()
+                    .filter(x -> evaluate(ring, polynomial, x).equals(field.zero()))
+                    .collect(ImmutableList.toImmutableList());
+        }
+
+        Polynomial<E> x = ring.polynomial(ImmutableList.of(field.zero(), field.one()));
+        Polynomial<E> xToTheQ = power(ring, ring.divider(polynomial), x, field.size());
+        ImmutableList.Builder<E> roots = ImmutableList.builder();
+        split(ring, field, ring.gcd(polynomial, ring.difference(xToTheQ, x)), ThreadLocalRandom.current(), roots);
+        return roots.build();
+    }
+
+    // Splits a product of distinct linear factors:
+    private static <E> void split(IFieldPolynomialRing<E> ring, FiniteField<E> field, Polynomial<E> g,
+                                  Random random, ImmutableList.Builder<E> roots) {
+        if (g.getDegree() <= 0) {
+            return;
+        }
+        if (g.getDegree() == 1) {
+            List<E> coefficients = g.getCoefficients();
+            roots.add(field.negative(field.quotient(coefficients.get(0), coefficients.get(1))));
+            return;
+        }
+        PolynomialDivider<E> divider = ring.divider(g);
+        BigInteger q = field.size();
+        boolean hasCharacteristicTwo = q.bitCount() == 1;
+        while (true) {
+            Polynomial<E> h;
+            if (hasCharacteristicTwo) {
+                E a = field.sampleUniformly(random);
+                Polynomial<E> term = divider.mod(ring.polynomial(ImmutableList.of(field.zero(), a)));
+                h = term;
+                for (int i = 1; i < q.bitLength() - 1; i++) {
+                    term = divider.mod(ring.product(term, term));
+                    h = ring.sum(h, term);
+                }
+            } else {
+                Polynomial<E> base = ring.polynomial(ImmutableList.of(field.sampleUniformly(random), field.one()));
+                h = ring.difference(power(ring, divider, base, q.shiftRight(1)), ring.one());
+            }
+            Polynomial<E> d = ring.gcd(g, h);
+            if (d.getDegree() > 0 && d.getDegree() < g.getDegree()) {
+                split(ring, field, d, random, roots);
+                split(ring, field, ring.div(g, d), random, roots);
+                return;
+            }
+        }
+    }
+
+    // The given power of a polynomial, modulo the divisor, by square & multiply:
+    private static <E> Polynomial<E> power(IFieldPolynomialRing<E> ring, PolynomialDivider<E> divider,
+                                           Polynomial<E> base, BigInteger exponent) {
+        base = divider.mod(base);
+        Polynomial<E> acc = divider.mod(ring.one());
+        for (int i = exponent.bitLength(); i-- > 0; ) {
+            acc = divider.mod(ring.product(acc, acc));
+            if (exponent.testBit(i)) {
+                acc = divider.mod(ring.product(acc, base));
+            }
+        }
+        return acc;
+    }
+
+    private static <E> E evaluate(IFieldPolynomialRing<E> ring, Polynomial<E> polynomial, E x) {
+        List<E> coefficients = polynomial.getCoefficients();
+        E acc = ring.getBaseRing().zero();
+        for (int i = coefficients.size() - 1; i >= 0; i--) {
+            acc = ring.getBaseRing().sum(ring.getBaseRing().product(acc, x), coefficients.get(i));
+        }
+        return acc;
+    }
+}
@@ -0,0 +1,371 @@
+package securecompute.algebra.polynomial;
+
+import com.google.common.collect.ImmutableList;
+import securecompute.algebra.BooleanField;
+import securecompute.algebra.Gf256;
+import securecompute.algebra.Ring;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A list of polynomial expressions compiled into a straight-line program of binary sums & products on a register file,
+ * for fast repeated evaluation. Sums & products of more than two terms are split into chains, and common subexpressions
+ * (including repeated variables & constants) are computed only once, by hash-consing each instruction by its operands.
+ * Registers are then reallocated by a linear scan, so that values no longer needed free up their registers for reuse.
+ * <p>
+ * The program is held as a flat {@code int} array of (opcode, destination, operand, operand) quadruples, with the
+ * distinct constants preloaded into a fixed set of registers at the start of each evaluation.
+ */
+public final class StraightLineProgram<E> {
+    private static final int LOAD = 0, ADD = 1, MULTIPLY = 2;
+
+    private final Ring<E> ring;
+    private final E[] constants; // preloaded into registers 0, 1, ..., constants.length - 1
+    private final int[] instructions;
+    private final int[] outputRegisters;
+    private final int registerCount;
+
+    private StraightLineProgram(Ring<E> ring, E[] constants, int[] instructions, int[] outputRegisters,
+                                int registerCount) {
+        this.ring = ring;
+        this.constants = constants;
+        this.instructions = instructions;
+        this.outputRegisters = outputRegisters;
+        this.registerCount = registerCount;
+    }
+
+    public static <E> StraightLineProgram<E> compile(Ring<E> ring,
+                                                     List<? extends PolynomialExpression<E>> expressions) {
+        return new Compiler<>(ring).compile(expressions);
+    }
+
+    public int instructionCount() {
+        return instructions.length / 4;
+    }
+
+    public int registerCount() {
+        return registerCount;
+    }
+
+    public List<E> evaluate(IntFunction<E> symbolMapping) {
+        E[] registers = newArray(registerCount);
+        System.arraycopy(constants, 0, registers, 0, constants.length);
+        for (int pc = 0; pc < instructions.length; pc += 4) {
+            int a = instructions[pc + 2], b = instructions[pc + 3];
+            switch (instructions[pc]) {
+                case LOAD:
+                    registers[instructions[pc + 1]] = symbolMapping.apply(a);
+                    break;
+                case ADD:
+                    registers[instructions[pc + 1]] = ring.sum(registers[a], registers[b]);
+                    break;
+                default:
+                    registers[instructions[pc + 1]] = ring.product(registers[a], registers[b]);
+            }
+        }
+        E[] outputs = newArray(outputRegisters.length);
+        for (int i = 0; i < outputs.length; i++) {
+            outputs[i] = registers[outputRegisters[i]];
+        }
+        return Arrays.asList(outputs);
+    }
+
+    // Evaluates the program column-wise on a batch of inputs, given as the values of each variable across the batch (as
+    // lists of the given size), returning the value of each output across the batch likewise. Each instruction is then
+    // dispatched once per batch rather than once per input, and over GF(2) & GF(256) works on packed primitive arrays.
+    @SuppressWarnings("unchecked")
+    public List<List<E>> evaluateBatch(IntFunction<List<E>> symbolColumnMapping, int batchSize) {
+        if (ring == BooleanField.INSTANCE) {
+            return (List<List<E>>) (List<?>) ((StraightLineProgram<Boolean>) this)
+                    .evaluateBooleanBatch(i -> (List<Boolean>) symbolColumnMapping.apply(i), batchSize);
+        }
+        if (ring instanceof Gf256) {
+            return (List<List<E>>) (List<?>) ((StraightLineProgram<Gf256.Element>) this)
+                    .evaluateGf256Batch(i -> (List<Gf256.Element>) symbolColumnMapping.apply(i), batchSize);
+        }
+        E[][] registers = newArray(registerCount, batchSize);
+        for (int i = 0; i < constants.length; i++) {
+            Arrays.fill(registers[i], constants[i]);
+        }
+        for (int pc = 0; pc < instructions.length; pc += 4) {
+            E[] dst = registers[instructions[pc + 1]];
+            int a = instructions[pc + 2], b = instructions[pc + 3];
+            switch (instructions[pc]) {
+                case LOAD:
+                    List<E> column = symbolColumnMapping.apply(a);
+                    for (int j = 0; j < batchSize; j++) {
+                        dst[j] = column.get(j);
+                    }
+                    break;
+                case ADD:
+                    for (int j = 0; j < batchSize; j++) {
+                        dst[j] = ring.sum(registers[a][j], registers[b][j]);
+                    }
+                    break;
+                default:
+                    for (int j = 0; j < batchSize; j++) {
+                        dst[j] = ring.product(registers[a][j], registers[b][j]);
+                    }
+            }
+        }
+        return Arrays.stream(outputRegisters)
+                .mapToObj(r -> ImmutableList.copyOf(registers[r]))
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    private List<List<Boolean>> evaluateBooleanBatch(IntFunction<List<Boolean>> symbolColumnMapping, int batchSize) {
+        long[][] outputWords = evaluateBitSliced(i -> {
+            List<Boolean> column = symbolColumnMapping.apply(i);
+            long[] words = new long[(batchSize + 63) >>> 6];
+            for (int j = 0; j < batchSize; j++) {
+                if (column.get(j)) {
+                    words[j >>> 6] |= 1L << j;
+                }
+            }
+            return words;
+        }, (batchSize + 63) >>> 6);
+
+        ImmutableList.Builder<List<Boolean>> outputs = ImmutableList.builderWithExpectedSize(outputWords.length);
+        for (long[] words : outputWords) {
+            Boolean[] column = new Boolean[batchSize];
+            for (int j = 0; j < batchSize; j++) {
+                column[j] = (words[j >>> 6] & 1L << j) != 0;
+            }
+            outputs.add(ImmutableList.copyOf(column));
+        }
+        return outputs.build();
+    }
+
+    // Bit-sliced evaluation over GF(2), with each symbol held as an array of words packing 64 independent inputs
+    // apiece, so that sums & products are XORs & ANDs of whole words. Returns the words of each output likewise.
+    public long[][] evaluateBitSliced(IntFunction<long[]> symbolWordMapping, int wordCount) {
+        checkState(ring == BooleanField.INSTANCE, "Not a Boolean program");
+        long[][] registers = new long[registerCount][wordCount];
+        for (int i = 0; i < constants.length; i++) {
+            Arrays.fill(registers[i], (Boolean) constants[i] ? -1L : 0L);
+        }
+        for (int pc = 0; pc < instructions.length; pc += 4) {
+            long[] dst = registers[instructions[pc + 1]];
+            int a = instructions[pc + 2], b = instructions[pc + 3];
+            switch (instructions[pc]) {
+                case LOAD:
+                    System.arraycopy(symbolWordMapping.apply(a), 0, dst, 0, wordCount);
+                    break;
+                case ADD:
+                    for (int w = 0; w < wordCount; w++) {
+                        dst[w] = registers[a][w] ^ registers[b][w];
+                    }
+                    break;
+                default:
+                    for (int w = 0; w < wordCount; w++) {
+                        dst[w] = registers[a][w] & registers[b][w];
+                    }
+            }
+        }
+        long[][] outputs = new long[outputRegisters.length][];
+        for (int i = 0; i < outputs.length; i++) {
+            outputs[i] = registers[outputRegisters[i]].clone();
+        }
+        return outputs;
+    }
+
+    private List<List<Gf256.Element>> evaluateGf256Batch(IntFunction<List<Gf256.Element>> symbolColumnMapping,
+                                                         int batchSize) {
+        Gf256 field = (Gf256) ring;
+        byte[][] registers = new byte[registerCount][batchSize];
+        for (int i = 0; i < constants.length; i++) {
+            Arrays.fill(registers[i], ((Gf256.Element) constants[i]).getValue());
+        }
+        for (int pc = 0; pc < instructions.length; pc += 4) {
+            byte[] dst = registers[instructions[pc + 1]];
+            int a = instructions[pc + 2], b = instructions[pc + 3];
+            switch (instructions[pc]) {
+                case LOAD:
+                    List<Gf256.Element> column = symbolColumnMapping.apply(a);
+                    for (int j = 0; j < batchSize; j++) {
+                        dst[j] = column.get(j).getValue();
+                    }
+                    break;
+                case ADD:
+                    field.addInto(dst, registers[a], registers[b]);
+                    break;
+                default:
+                    field.mulInto(dst, registers[a], registers[b]);
+            }
+        }
+        ImmutableList.Builder<List<Gf256.Element>> outputs = ImmutableList.builderWithExpectedSize(
+                outputRegisters.length);
+        for (int r : outputRegisters) {
+            byte[] bytes = registers[r];
+            Gf256.Element[] column = new Gf256.Element[batchSize];
+            for (int j = 0; j < batchSize; j++) {
+                column[j] = field.element(bytes[j]);
+            }
+            outputs.add(ImmutableList.copyOf(column));
+        }
+        return outputs.build();
+    }
+
+    private static final class Compiler<E> {
+        private final Ring<E> ring;
+        private final E zero, one;
+        private final Map<E, Integer> constantValues = new HashMap<>();
+        private final List<E> constants = new ArrayList<>();
+        private final Map<List<Integer>, Integer> instructionValues = new HashMap<>();
+        private final Map<PolynomialExpression<E>, Integer> expressionValues = new IdentityHashMap<>();
+        private final List<int[]> instructions = new ArrayList<>(); // (opcode, operand, operand), by value number
+
+        Compiler(Ring<E> ring) {
+            this.ring = ring;
+            zero = ring.zero();
+            one = ring.one();
+        }
+
+        // Values are numbered by SSA: -1 - c for the constant c, i >= 0 for the result of the i'th instruction.
+        StraightLineProgram<E> compile(List<? extends PolynomialExpression<E>> expressions) {
+            int[] outputValues = expressions.stream().mapToInt(this::value).toArray();
+            int constantCount = constants.size(), instructionCount = instructions.size();
+
+            // Find the last use of each instruction result, keeping the outputs alive to the end:
+            int[] lastUse = new int[instructionCount];
+            for (int i = 0; i < instructionCount; i++) {
+                int[] instruction = instructions.get(i);
+                lastUse[i] = i;
+                if (instruction[0] != LOAD) {
+                    for (int k = 1; k <= 2; k++) {
+                        if (instruction[k] >= 0) {
+                            lastUse[instruction[k]] = i;
+                        }
+                    }
+                }
+            }
+            for (int v : outputValues) {
+                if (v >= 0) {
+                    lastUse[v] = instructionCount;
+                }
+            }
+
+            // Linear scan register allocation, after the constant registers:
+            int[] registerOf = new int[instructionCount];
+            Deque<Integer> freeRegisters = new ArrayDeque<>();
+            int registerCount = constantCount;
+            int[] code = new int[4 * instructionCount];
+            for (int i = 0; i < instructionCount; i++) {
+                int[] instruction = instructions.get(i);
+                int a = instruction[1], b = instruction[2];
+                if (instruction[0] != LOAD) {
+                    a = register(registerOf, a);
+                    b = register(registerOf, b);
+                    // free the operand registers first, so that the destination may overwrite one of them:
+                    for (int k = 1; k <= 2; k++) {
+                        int v = instruction[k];
+                        if (v >= 0 && lastUse[v] == i && (k == 1 || instruction[1] != v)) {
+                            freeRegisters.push(registerOf[v]);
+                        }
+                    }
+                }
+                int dst = registerOf[i] = !freeRegisters.isEmpty() ? freeRegisters.pop() : registerCount++;
+                if (lastUse[i] == i) {
+                    freeRegisters.push(dst); // never used
+                }
+                code[4 * i] = instruction[0];
+                code[4 * i + 1] = dst;
+                code[4 * i + 2] = a;
+                code[4 * i + 3] = b;
+            }
+
+            int[] outputRegisters = new int[outputValues.length];
+            for (int i = 0; i < outputValues.length; i++) {
+                outputRegisters[i] = register(registerOf, outputValues[i]);
+            }
+            return new StraightLineProgram<>(ring, constants.toArray(newArray(constantCount)), code, outputRegisters,
+                    registerCount);
+        }
+
+        private static int register(int[] registerOf, int value) {
+            return value >= 0 ? registerOf[value] : -1 - value;
+        }
+
+        private int value(PolynomialExpression<E> expression) {
+            Integer value = expressionValues.get(expression);
+            if (value == null) {
+                expressionValues.put(expression, value = computeValue(expression));
+            }
+            return value;
+        }
+
+        private int computeValue(PolynomialExpression<E> expression) {
+            switch (expression.expressionType()) {
+                case CONSTANT:
+                    return constant(expression.constantValue());
+                case VARIABLE:
+                    return instruction(LOAD, expression.variableIndex(), 0);
+                case SUM: {
+                    int acc = constant(zero);
+                    for (PolynomialExpression<E> term : expression.subTerms()) {
+                        int v = value(term);
+                        acc = isConstant(acc, zero) ? v : isConstant(v, zero) ? acc : instruction(ADD, acc, v);
+                    }
+                    return acc;
+                }
+                case PRODUCT: {
+                    int acc = constant(one);
+                    for (PolynomialExpression<E> term : expression.subTerms()) {
+                        int v = value(term);
+                        acc = isConstant(acc, one) ? v : isConstant(v, one) ? acc : instruction(MULTIPLY, acc, v);
+                    }
+                    return acc;
+                }
+            }
+            throw new AssertionError(expression.expressionType()); // unreachable
+        }
+
+        private int constant(E value) {
+            Integer c = constantValues.get(value);
+            if (c == null) {
+                constantValues.put(value, c = constants.size());
+                constants.add(value);
+            }
+            return -1 - c;
+        }
+
+        private boolean isConstant(int value, E constant) {
+            return value < 0 && constants.get(-1 - value).equals(constant);
+        }
+
+        private int instruction(int opcode, int a, int b) {
+            if (opcode != LOAD && a > b) {
+                int tmp = a; // sums & products commute, so normalise the operand order for better hash-consing
+                a = b;
+                b = tmp;
+            }
+            List<Integer> key = ImmutableList.of(opcode, a, b);
+            Integer value = instructionValues.get(key);
+            if (value == null) {
+                instructionValues.put(key, value = instructions.size());
+                instructions.add(new int[]{opcode, a, b});
+            }
+            return value;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> E[] newArray(int length) {
+        return (E[]) new Object[length];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> E[][] newArray(int length, int innerLength) {
+        return (E[][]) new Object[length][innerLength];
+    }
+}
@@ -0,0 +1,115 @@
+package securecompute.algebra.polynomial;
+
+import com.google.common.collect.ImmutableList;
+import securecompute.algebra.Field;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A balanced binary tree of the products {@code (x - a_i)(x - a_(i+1))...(x - a_(j-1))} over ranges of a fixed list of
+ * points {@code a_0, ..., a_(n-1)}, for multipoint evaluation (by successive reduction down the tree) and Lagrange
+ * interpolation (by combining up the tree) in O(M(n) log n) time, where M(n) is the cost of multiplication. Each node
+ * holds a {@link PolynomialDivider}, so that repeated evaluations reuse the inverses it computes. Below a small range
+ * size, evaluation switches to Horner's method.
+ */
+public final class SubproductTree<E> {
+    private static final int LEAF_SIZE = 8;
+
+    private final IFieldPolynomialRing<E> ring;
+    private final List<E> points;
+    private final PolynomialDivider<E>[] nodes; // heap-ordered, with children 2i + 1 & 2i + 2 for the two half ranges
+    private final List<E> weights; // 1 / M'(a_i), where M is the product of all the linear factors
+
+    public SubproductTree(IFieldPolynomialRing<E> ring, List<E> points) {
+        checkArgument(!points.isEmpty(), "No points");
+        this.ring = ring;
+        this.points = ImmutableList.copyOf(points);
+        nodes = newDividerArray(4 * points.size());
+        build(0, 0, points.size());
+
+        // The Lagrange interpolation weights are the reciprocals of the formal derivative of M at each point:
+        Field<E> field = ring.getBaseRing();
+        List<E> coefficients = getRootPolynomial().getCoefficients();
+        E[] derivative = newArray(coefficients.size() - 1);
+        for (int i = 0; i < derivative.length; i++) {
+            derivative[i] = field.product(field.fromLong(i + 1), coefficients.get(i + 1));
+        }
+        weights = Field.reciprocals(field, evaluate(ring.polynomial(derivative)));
+    }
+
+    private Polynomial<E> build(int node, int from, int to) {
+        Polynomial<E> product;
+        if (to - from == 1) {
+            Field<E> field = ring.getBaseRing();
+            product = ring.polynomial(ImmutableList.of(field.negative(points.get(from)), field.one()));
+        } else {
+            int mid = (from + to) >>> 1;
+            product = ring.product(build(2 * node + 1, from, mid), build(2 * node + 2, mid, to));
+        }
+        nodes[node] = new PolynomialDivider<>(ring, product);
+        return product;
+    }
+
+    public List<E> getPoints() {
+        return points;
+    }
+
+    public Polynomial<E> getRootPolynomial() {
+        return nodes[0].getDivisor();
+    }
+
+    public List<E> evaluate(Polynomial<E> polynomial) {
+        E[] values = newArray(points.size());
+        evaluate(nodes[0].mod(polynomial), values, 0, 0, points.size());
+        return ImmutableList.copyOf(values);
+    }
+
+    private void evaluate(Polynomial<E> remainder, E[] values, int node, int from, int to) {
+        if (to - from <= LEAF_SIZE) {
+            Field<E> field = ring.getBaseRing();
+            List<E> coefficients = remainder.getCoefficients();
+            for (int i = from; i < to; i++) {
+                E x = points.get(i), acc = field.zero();
+                for (int j = coefficients.size() - 1; j >= 0; j--) {
+                    acc = field.sum(field.product(acc, x), coefficients.get(j));
+                }
+                values[i] = acc;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        evaluate(nodes[2 * node + 1].mod(remainder), values, 2 * node + 1, from, mid);
+        evaluate(nodes[2 * node + 2].mod(remainder), values, 2 * node + 2, mid, to);
+    }
+
+    // The unique polynomial of degree less than the number of points taking the given values at those points.
+    public Polynomial<E> interpolate(List<E> values) {
+        checkArgument(values.size() == points.size(), "Value count mismatch: %s vs %s", values.size(), points.size());
+        return interpolate(values, 0, 0, points.size());
+    }
+
+    // sum of v_i * w_i * M_node / (x - a_i) over the node range:
+    private Polynomial<E> interpolate(List<E> values, int node, int from, int to) {
+        Field<E> field = ring.getBaseRing();
+        if (to - from == 1) {
+            return ring.polynomial(ImmutableList.of(field.product(values.get(from), weights.get(from))));
+        }
+        int mid = (from + to) >>> 1;
+        Polynomial<E> left = interpolate(values, 2 * node + 1, from, mid);
+        Polynomial<E> right = interpolate(values, 2 * node + 2, mid, to);
+        return ring.sum(ring.product(left, nodes[2 * node + 2].getDivisor()),
+                ring.product(right, nodes[2 * node + 1].getDivisor()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> E[] newArray(int length) {
+        return (E[]) new Object[length];
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <E> PolynomialDivider<E>[] newDividerArray(int length) {
+        return new PolynomialDivider[length];
+    }
+}
@@ -2,6 +2,7 @@ package securecompute.circuit;
 
 import com.google.auto.value.AutoValue;
 import com.google.auto.value.extension.memoized.Memoized;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import securecompute.algebra.BooleanField;
@@ -9,6 +10,7 @@ import securecompute.algebra.FiniteField;
 import securecompute.algebra.module.singleton.SingletonVectorSpace;
 import securecompute.algebra.polynomial.BasePolynomialExpression;
 import securecompute.algebra.polynomial.PolynomialExpression;
+import securecompute.algebra.polynomial.StraightLineProgram;
 import securecompute.constraint.AlgebraicConstraint;
 import securecompute.constraint.block.BlockConstraint;
 
@@ -16,6 +18,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -23,6 +26,9 @@ import static securecompute.algebra.polynomial.BasePolynomialExpression.*;
 
 public abstract class AlgebraicFunction<E> implements Function<List<E>, List<E>>, AlgebraicConstraint<E, E> {
 
+    private final Supplier<StraightLineProgram<E>> parityCheckProgram =
+            Suppliers.memoize(this::compileParityCheckTerms);
+
     public abstract int inputLength();
 
     public abstract int outputLength();
@@ -48,11 +54,19 @@ public abstract class AlgebraicFunction<E> implements Function<List<E>, List<E>>
 
     @Override
     public List<E> parityCheck(List<E> vector) {
-        return parityCheck(field(), parityCheckTerms(), vector).collect(ImmutableList.toImmutableList());
+        return ImmutableList.copyOf(parityCheckProgram.get().evaluate(vector::get));
+    }
+
+    @Override
+    public List<List<E>> batchParityCheck(List<List<E>> rows, int batchSize) {
+        if (rows.contains(null)) {
+            return AlgebraicConstraint.super.batchParityCheck(rows, batchSize);
+        }
+        return parityCheckProgram.get().evaluateBatch(rows::get, batchSize);
     }
 
-    private static <E> Stream<E> parityCheck(FiniteField<E> field, List<PolynomialExpression<E>> terms, List<E> vector) {
-        return terms.stream().map(p -> p.evaluate(field, vector::get));
+    private StraightLineProgram<E> compileParityCheckTerms() {
+        return StraightLineProgram.compile(field(), parityCheckTerms());
     }
 
     private static <E> List<E> zeroExtend(FiniteField<E> field, List<E> vector, int rightPadding) {
@@ -108,8 +122,11 @@ public abstract class AlgebraicFunction<E> implements Function<List<E>, List<E>>
 
         default B simpleBaseFn() {
             int outputLength = parityCheckTerms().size();
-            return baseFn(v -> Stream.concat(v.stream(), parityCheck(
-                    field(), parityCheckTerms(), zeroExtend(field(), v, outputLength))
+            FiniteField<E> field = field();
+            Supplier<StraightLineProgram<E>> program = Suppliers.memoize(() ->
+                    StraightLineProgram.compile(field, parityCheckTerms()));
+            return baseFn(v -> Stream.concat(v.stream(), program.get()
+                    .evaluate(zeroExtend(field, v, outputLength)::get).stream()
             )
                     .collect(ImmutableList.toImmutableList()))
                     .auxiliaryLength(0).outputLength(outputLength);
@@ -135,7 +152,25 @@ public abstract class AlgebraicFunction<E> implements Function<List<E>, List<E>>
     }
 
     public static <E> AlgebraicFunction<E> vectorFn(AlgebraicFunction<E> function, int n) {
-        return builder(function.field()).degree(function.degree())
+        Builder<E, ?, ?> builder = builder(function.field());
+        if (function instanceof BooleanFunction) {
+            BooleanFunction booleanFunction = (BooleanFunction) function;
+            ((BooleanFunction.Builder) builder).bitSlicedBaseFn(v -> {
+                long[] stateWords = new long[n * function.length()];
+                long[] inputWords = new long[function.inputLength()];
+                for (int i = 0; i < n; i++) {
+                    for (int j = 0; j < inputWords.length; j++) {
+                        inputWords[j] = v[i + n * j];
+                    }
+                    long[] blockStateWords = booleanFunction.evaluateBitSliced(inputWords);
+                    for (int j = 0; j < blockStateWords.length; j++) {
+                        stateWords[i + n * j] = blockStateWords[j];
+                    }
+                }
+                return stateWords;
+            });
+        }
+        return builder.degree(function.degree())
                 .inputLength(n * function.inputLength())
                 .outputLength(n * function.outputLength())
                 .auxiliaryLength(n * function.auxiliaryLength())
@@ -144,7 +179,7 @@ public abstract class AlgebraicFunction<E> implements Function<List<E>, List<E>>
                         .collect(ImmutableList.toImmutableList())
                 )
                 .baseFn(v -> BlockConstraint.streamLayers(
-                        BlockConstraint.streamLayers(Lists.partition(v, n), n)
+                        parallelIfLarge(BlockConstraint.streamLayers(Lists.partition(v, n), n), n * function.length())
                                 .map(function.baseFn())
                                 .collect(ImmutableList.toImmutableList()), function.length()
                         ).flatMap(List::stream).collect(ImmutableList.toImmutableList())
@@ -152,6 +187,11 @@ public abstract class AlgebraicFunction<E> implements Function<List<E>, List<E>>
                 .build();
     }
 
+    // The blocks of a vector function are independent, so evaluate them in parallel if there is enough work to do:
+    private static <T> Stream<T> parallelIfLarge(Stream<T> blocks, int totalLength) {
+        return totalLength >= CompiledCircuit.PARALLEL_LEVEL_THRESHOLD ? blocks.parallel() : blocks;
+    }
+
     public static <E> AlgebraicFunction<E> sumFn(FiniteField<E> field, int n) {
         return builder(field).degree(1).inputLength(n)
                 .parityCheckTerms(ImmutableList.of(sum(IntStream.range(0, n)
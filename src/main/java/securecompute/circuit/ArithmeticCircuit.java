@@ -4,16 +4,14 @@ import com.google.auto.value.AutoValue;
 import com.google.auto.value.extension.memoized.Memoized;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import com.google.common.graph.*;
 import securecompute.algebra.FiniteField;
 import securecompute.algebra.polynomial.BasePolynomialExpression;
 import securecompute.algebra.polynomial.PolynomialExpression;
+import securecompute.algebra.polynomial.PolynomialExpressionNormaliser;
 
 import java.util.*;
-import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -70,49 +68,25 @@ public abstract class ArithmeticCircuit<E> {
         return sortedGates.build();
     }
 
-    private void evaluate(List<E> inputs, Consumer<List<E>> gateStateSink) {
-        Map<Wire<E>, E> front = new HashMap<>();
-
-        for (Gate<E> gate : gatesInTopologicalOrder()) {
-            AlgebraicFunction<E> gateFn = gate.function();
-            List<E> gateState;
-            if (gate instanceof ArithmeticCircuit.InputPort) {
-                gateStateSink.accept(gateState = inputs);
-            } else {
-                List<E> gateInputs = ImmutableList.copyOf(network().inEdges(gate).stream()
-                        .collect(Collectors.toMap(Wire::toIndex, front::remove, gate::matchInputs))
-                        .values());
-                gateStateSink.accept(gateState = gateFn.baseFn().apply(gateInputs));
-                if (gate instanceof ArithmeticCircuit.OutputPort) {
-                    return;
-                }
-            }
-            List<E> gateOutputs = gateState.subList(gateFn.inputLength() + gateFn.auxiliaryLength(), gateFn.length());
-            Set<Wire<E>> outWires = gate instanceof ArithmeticCircuit.InputPort && !inputPort().isPresent()
-                    ? ImmutableSet.of()
-                    : network().outEdges(gate);
-
-            //noinspection ConstantConditions
-            front.putAll(Maps.asMap(outWires, w -> gateOutputs.get(w.fromIndex())));
-        }
-        throw new AssertionError(); // unreachable
-    }
-
-    private List<E> evaluateCircuitState(List<E> input, int expectedLength) {
-        ImmutableList.Builder<E> builder = ImmutableList.builderWithExpectedSize(expectedLength);
-        evaluate(input, builder::addAll);
-        return builder.build();
+    @Memoized
+    CompiledCircuit<E> compiled() {
+        return new CompiledCircuit<>(this);
     }
 
     private List<PolynomialExpression<E>> parityCheckTerms() {
         ImmutableList.Builder<PolynomialExpression<E>> terms = ImmutableList.builder();
         Map<Gate<E>, Integer> offsetMap = new HashMap<>(gatesInTopologicalOrder().size());
+        // Gates very often share functions, so simplify the terms of each distinct function just once:
+        PolynomialExpressionNormaliser<E> normaliser = new PolynomialExpressionNormaliser<>(field());
+        Map<AlgebraicFunction<E>, List<PolynomialExpression<E>>> normalisedTerms = new IdentityHashMap<>();
         int offset = 0;
         for (Gate<E> gate : gatesInTopologicalOrder()) {
             int finalOffset = offset;
             offsetMap.put(gate, offset);
+            List<PolynomialExpression<E>> gateTerms = normalisedTerms.computeIfAbsent(gate.function(), fn ->
+                    ImmutableList.copyOf(Lists.transform(fn.parityCheckTerms(), normaliser::normalise)));
             //noinspection ConstantConditions
-            terms.addAll(Lists.transform(gate.function().parityCheckTerms(), p -> p.mapIndices(i -> i + finalOffset)));
+            terms.addAll(Lists.transform(gateTerms, p -> p.mapIndices(i -> i + finalOffset)));
             offset += gate.function().length();
         }
         for (Wire<E> wire : network().edges()) {
@@ -133,14 +107,17 @@ public abstract class ArithmeticCircuit<E> {
         int outputLength = outputPort().isPresent() ? outputPort().get().function().length() : 0;
         int length = gatesInTopologicalOrder().stream().mapToInt(g -> g.function().length()).sum();
 
-        return AlgebraicFunction.builder(field())
+        AlgebraicFunction.Builder<E, ?, ?> builder = AlgebraicFunction.builder(field())
                 .degree(degree())
                 .inputLength(inputLength)
                 .outputLength(outputLength)
                 .auxiliaryLength(length - inputLength - outputLength)
                 .parityCheckTerms(parityCheckTerms())
-                .baseFn(v -> evaluateCircuitState(v, length))
-                .build();
+                .baseFn(v -> compiled().evaluate(v));
+        if (builder instanceof BooleanFunction.Builder) {
+            ((BooleanFunction.Builder) builder).bitSlicedBaseFn(v -> compiled().evaluateBitSliced(v));
+        }
+        return builder.build();
     }
 
     public static class Gate<E> {
@@ -166,7 +143,7 @@ public abstract class ArithmeticCircuit<E> {
             return name != null ? name : getClass().getSimpleName() + "@" + Integer.toHexString(hashCode());
         }
 
-        private E matchInputs(E x, E y) {
+        E matchInputs(E x, E y) {
             if (!x.equals(y)) {
                 throw new IllegalArgumentException("Mismatched fan-in inputs " + x + " and " + y + " at gate: " + this);
             }
@@ -1,11 +1,23 @@
 package securecompute.circuit;
 
 import com.google.auto.value.AutoValue;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Longs;
 import securecompute.algebra.BooleanField;
 import securecompute.algebra.module.singleton.SingletonVectorSpace;
 import securecompute.algebra.polynomial.BasePolynomialExpression.Constant;
 import securecompute.algebra.polynomial.BasePolynomialExpression.Variable;
+import securecompute.algebra.polynomial.StraightLineProgram;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static com.google.common.base.Preconditions.checkArgument;
 
 import static securecompute.algebra.polynomial.BasePolynomialExpression.constant;
 import static securecompute.algebra.polynomial.BasePolynomialExpression.variable;
@@ -20,6 +32,7 @@ public abstract class BooleanFunction extends AlgebraicFunction<Boolean> {
     public static final BooleanFunction AND = builder()
             .degree(2)
             .simpleBaseFn(Boolean::logicalAnd)
+            .bitSlicedBaseFn(v -> new long[]{v[0], v[1], v[0] & v[1]})
             .parityCheckTerms(ImmutableList.of(X.multiply(Y).add(Z)))
             .build();
 
@@ -27,6 +40,7 @@ public abstract class BooleanFunction extends AlgebraicFunction<Boolean> {
     public static final BooleanFunction OR = builder()
             .degree(2)
             .simpleBaseFn(Boolean::logicalOr)
+            .bitSlicedBaseFn(v -> new long[]{v[0], v[1], v[0] | v[1]})
             .parityCheckTerms(ImmutableList.of(X.add(_1).multiply(Y.add(_1)).add(Z).add(_1)))
             .build();
 
@@ -34,20 +48,71 @@ public abstract class BooleanFunction extends AlgebraicFunction<Boolean> {
     public static final BooleanFunction XOR = builder()
             .degree(1)
             .simpleBaseFn(Boolean::logicalXor)
+            .bitSlicedBaseFn(v -> new long[]{v[0], v[1], v[0] ^ v[1]})
             .parityCheckTerms(ImmutableList.of(X.add(Y).add(Z)))
             .build();
 
     public static final BooleanFunction NOT = builder()
             .degree(1)
             .simpleBaseFn(b -> !b)
+            .bitSlicedBaseFn(v -> new long[]{v[0], ~v[0]})
             .parityCheckTerms(ImmutableList.of(X.add(Y).add(_1)))
             .build();
 
+    /**
+     * An optional bit-sliced form of the base function, acting on 64 independent instances at once. Each symbol is held
+     * as a word with one bit per instance, and the words of the inputs are mapped to those of the full function state.
+     */
+    public abstract Optional<UnaryOperator<long[]>> bitSlicedBaseFn();
+
     @Override
     public BooleanField field() {
         return BooleanField.INSTANCE;
     }
 
+    public long[] evaluateBitSliced(long[] inputWords) {
+        checkArgument(inputWords.length == inputLength(), "Input length mismatch: %s", inputWords.length);
+        if (bitSlicedBaseFn().isPresent()) {
+            return bitSlicedBaseFn().get().apply(inputWords);
+        }
+        // No bit-sliced form, so fall back to evaluating each of the instances in turn:
+        long[] stateWords = new long[length()];
+        for (int j = 0; j < 64; j++) {
+            int bit = j;
+            List<Boolean> state = baseFn().apply(Lists.transform(Longs.asList(inputWords), w -> (w >>> bit & 1) != 0));
+            for (int i = 0; i < stateWords.length; i++) {
+                stateWords[i] |= state.get(i) ? 1L << j : 0;
+            }
+        }
+        return stateWords;
+    }
+
+    // Applies the function to a batch of input vectors, in bit-sliced groups of 64.
+    public List<List<Boolean>> applyBatch(List<List<Boolean>> inputVectors) {
+        ImmutableList.Builder<List<Boolean>> outputVectors = ImmutableList.builderWithExpectedSize(inputVectors.size());
+        int offset = inputLength() + auxiliaryLength();
+        for (List<List<Boolean>> group : Lists.partition(inputVectors, 64)) {
+            long[] inputWords = new long[inputLength()];
+            for (int j = 0; j < 64; j++) {
+                // pad out the unused instances with copies of the first, so they remain in the function domain:
+                List<Boolean> input = group.get(j < group.size() ? j : 0);
+                checkArgument(input.size() == inputLength(), "Input length mismatch: %s", input.size());
+                for (int i = 0; i < inputWords.length; i++) {
+                    inputWords[i] |= input.get(i) ? 1L << j : 0;
+                }
+            }
+            long[] stateWords = evaluateBitSliced(inputWords);
+            for (int j = 0; j < group.size(); j++) {
+                Boolean[] output = new Boolean[outputLength()];
+                for (int i = 0; i < output.length; i++) {
+                    output[i] = (stateWords[offset + i] >>> j & 1) != 0;
+                }
+                outputVectors.add(ImmutableList.copyOf(output));
+            }
+        }
+        return outputVectors.build();
+    }
+
     @Override
     public SingletonVectorSpace<Boolean> symbolSpace() {
         return SYMBOL_SPACE;
@@ -60,9 +125,28 @@ public abstract class BooleanFunction extends AlgebraicFunction<Boolean> {
     @AutoValue.Builder
     public interface Builder extends AlgebraicFunction.Builder<Boolean, Builder, BooleanFunction> {
 
+        Builder bitSlicedBaseFn(UnaryOperator<long[]> bitSlicedBaseFn);
+
         @Override
         default BooleanField field() {
             return BooleanField.INSTANCE;
         }
+
+        @Override
+        default Builder simpleBaseFn() {
+            int outputLength = parityCheckTerms().size();
+            Supplier<StraightLineProgram<Boolean>> program = Suppliers.memoize(() ->
+                    StraightLineProgram.compile(field(), parityCheckTerms()));
+            return AlgebraicFunction.Builder.super.simpleBaseFn()
+                    .bitSlicedBaseFn(v -> {
+                        long[][] outputWords = program.get().evaluateBitSliced(i ->
+                                new long[]{i < v.length ? v[i] : 0L}, 1);
+                        long[] stateWords = Arrays.copyOf(v, v.length + outputLength);
+                        for (int i = 0; i < outputLength; i++) {
+                            stateWords[v.length + i] = outputWords[i][0];
+                        }
+                        return stateWords;
+                    });
+        }
     }
 }
@@ -0,0 +1,161 @@
+package securecompute.circuit;
+
+import com.google.common.collect.ImmutableList;
+import securecompute.circuit.ArithmeticCircuit.Gate;
+import securecompute.circuit.ArithmeticCircuit.Wire;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * An arithmetic circuit lowered from its gate network into flat arrays, for fast evaluation. The full circuit state is
+ * held in a single array, as the concatenation of the states of each gate in topological order, and each gate input
+ * is read directly from the state index of the gate output it is wired to, so that evaluation is a single pass over
+ * the gates with no hashing or graph traversal. The gates are also grouped into levels by depth, so that each level
+ * of a sufficiently wide circuit may be evaluated in parallel.
+ */
+final class CompiledCircuit<E> {
+    static final int PARALLEL_LEVEL_THRESHOLD = 4096;
+
+    private final List<Gate<E>> gates;
+    private final AlgebraicFunction<E>[] functions;
+    private final int[] stateOffsets; // gate -> start of its state, with the total state length at the end
+    private final int[] inputSourceOffsets; // gate -> start of its input sources, with the total count at the end
+    private final int[] inputSources; // the state index wired to each gate input, in order
+    private final int[][] fanInChecks; // gate -> pairs of further state indices wired to the same input, to match
+    private final int[][] levels; // gates grouped by depth, the longest path to each from the input port (excluded)
+    private final int[] levelSizes; // the total state length of the gates on each level
+
+    CompiledCircuit(ArithmeticCircuit<E> circuit) {
+        gates = circuit.gatesInTopologicalOrder();
+        int gateCount = gates.size();
+        Map<Gate<E>, Integer> gateIndices = new HashMap<>(gateCount);
+        functions = newFunctionArray(gateCount);
+        stateOffsets = new int[gateCount + 1];
+        inputSourceOffsets = new int[gateCount + 1];
+        for (int g = 0; g < gateCount; g++) {
+            AlgebraicFunction<E> function = functions[g] = gates.get(g).function();
+            gateIndices.put(gates.get(g), g);
+            stateOffsets[g + 1] = stateOffsets[g] + function.length();
+            // the input port takes its state directly from the circuit inputs, rather than by wires:
+            inputSourceOffsets[g + 1] = inputSourceOffsets[g] + (g > 0 ? function.inputLength() : 0);
+        }
+
+        inputSources = new int[inputSourceOffsets[gateCount]];
+        Arrays.fill(inputSources, -1);
+        fanInChecks = new int[gateCount][];
+        int[] depths = new int[gateCount];
+        for (int g = 1; g < gateCount; g++) {
+            List<Integer> checks = new ArrayList<>();
+            depths[g] = 1;
+            for (Wire<E> wire : circuit.network().inEdges(gates.get(g))) {
+                int fromGate = gateIndices.get(wire.fromGate());
+                AlgebraicFunction<E> fromFn = functions[fromGate];
+                int source = stateOffsets[fromGate] + fromFn.inputLength() + fromFn.auxiliaryLength()
+                        + wire.fromIndex();
+                int slot = inputSourceOffsets[g] + wire.toIndex();
+                depths[g] = Math.max(depths[g], depths[fromGate] + 1);
+                if (inputSources[slot] < 0) {
+                    inputSources[slot] = source;
+                } else {
+                    checks.add(inputSources[slot]);
+                    checks.add(source);
+                }
+            }
+            fanInChecks[g] = checks.stream().mapToInt(i -> i).toArray();
+        }
+
+        int levelCount = Arrays.stream(depths).max().orElse(0);
+        levels = new int[levelCount][];
+        levelSizes = new int[levelCount];
+        for (int l = 0; l < levelCount; l++) {
+            int depth = l + 1;
+            levels[l] = IntStream.range(1, gateCount).filter(g -> depths[g] == depth).toArray();
+            levelSizes[l] = IntStream.of(levels[l]).map(g -> functions[g].length()).sum();
+        }
+    }
+
+    int length() {
+        return stateOffsets[stateOffsets.length - 1];
+    }
+
+    List<E> evaluate(List<E> inputs) {
+        checkArgument(inputs.size() == functions[0].length(), "Input length mismatch: %s", inputs.size());
+        E[] state = newArray(length());
+        for (int i = 0; i < inputs.size(); i++) {
+            state[i] = inputs.get(i);
+        }
+        forEachGateByLevel(g -> evaluateGate(state, g));
+        return ImmutableList.copyOf(state);
+    }
+
+    // As above, but bit-sliced, evaluating a Boolean circuit on 64 independent instances at once, with each wire held
+    // as a word of 64 bits (one per instance). Returns the words of the full circuit state.
+    long[] evaluateBitSliced(long[] inputs) {
+        checkArgument(inputs.length == functions[0].length(), "Input length mismatch: %s", inputs.length);
+        long[] state = new long[length()];
+        System.arraycopy(inputs, 0, state, 0, inputs.length);
+        forEachGateByLevel(g -> evaluateGateBitSliced(state, g));
+        return state;
+    }
+
+    // Gates on the same level are independent, so levels large enough to be worth it are run in parallel on the common
+    // fork-join pool. Each gate writes only to its own range of the state, so no further synchronisation is needed.
+    private void forEachGateByLevel(IntConsumer gateEvaluator) {
+        for (int l = 0; l < levels.length; l++) {
+            if (levels[l].length > 1 && levelSizes[l] >= PARALLEL_LEVEL_THRESHOLD) {
+                IntStream.of(levels[l]).parallel().forEach(gateEvaluator);
+            } else {
+                IntStream.of(levels[l]).forEach(gateEvaluator);
+            }
+        }
+    }
+
+    private void evaluateGate(E[] state, int g) {
+        E[] gateInputs = newArray(inputSourceOffsets[g + 1] - inputSourceOffsets[g]);
+        for (int i = 0; i < gateInputs.length; i++) {
+            gateInputs[i] = state[inputSources[inputSourceOffsets[g] + i]];
+        }
+        int[] checks = fanInChecks[g];
+        for (int k = 0; k < checks.length; k += 2) {
+            gates.get(g).matchInputs(state[checks[k]], state[checks[k + 1]]);
+        }
+        List<E> gateState = functions[g].baseFn().apply(Arrays.asList(gateInputs));
+        int offset = stateOffsets[g];
+        for (int i = 0; i < gateState.size(); i++) {
+            state[offset + i] = gateState.get(i);
+        }
+    }
+
+    private void evaluateGateBitSliced(long[] state, int g) {
+        long[] gateInputs = new long[inputSourceOffsets[g + 1] - inputSourceOffsets[g]];
+        for (int i = 0; i < gateInputs.length; i++) {
+            gateInputs[i] = state[inputSources[inputSourceOffsets[g] + i]];
+        }
+        int[] checks = fanInChecks[g];
+        for (int k = 0; k < checks.length; k += 2) {
+            if (state[checks[k]] != state[checks[k + 1]]) {
+                throw new IllegalArgumentException("Mismatched fan-in inputs at gate: " + gates.get(g));
+            }
+        }
+        long[] gateState = ((BooleanFunction) functions[g]).evaluateBitSliced(gateInputs);
+        System.arraycopy(gateState, 0, state, stateOffsets[g], gateState.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> E[] newArray(int length) {
+        return (E[]) new Object[length];
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <E> AlgebraicFunction<E>[] newFunctionArray(int length) {
+        return new AlgebraicFunction[length];
+    }
+}
@@ -19,7 +19,7 @@ public class Aes {
     private Aes() {
     }
 
-    public static final Gf256 AES_FIELD = new Gf256(0b100011011, 0b11);
+    public static final Gf256 AES_FIELD = new Gf256(0b100011011, 0b11, Gf256.MultiplicationMode.PRODUCT_TABLE);
 
     static final BasePolynomialExpression.Variable<Gf256.Element>
             X0 = variable(0), X1 = variable(1), X2 = variable(2), X3 = variable(3),
@@ -67,6 +67,18 @@ public class Sha2 {
                     }
                     return ImmutableList.copyOf(Booleans.asList(result));
                 })
+                .bitSlicedBaseFn(v -> {
+                    long[] result = new long[n * 4];
+                    long a, b, c = 0;
+                    for (int i = 1; i <= n; i++) {
+                        result[n - i] = a = v[n - i];
+                        result[2 * n - i] = b = v[2 * n - i];
+                        result[2 * n + i - 1] = c;
+                        result[4 * n - i] = a ^ b ^ c;
+                        c = i % nGroup != 0 ? (a ^ c) & (b ^ c) ^ c : 0;
+                    }
+                    return result;
+                })
                 .build();
     }
 
@@ -97,6 +109,7 @@ public class Sha2 {
                 .parityCheckTerms(ImmutableList.of(X1.add(X2).multiply(X0).add(X2).add(X3)))
                 .baseFn(v -> ImmutableList.of(v.get(0), v.get(1), v.get(2),
                         v.get(0) ? v.get(1) : v.get(2)))
+                .bitSlicedBaseFn(v -> new long[]{v[0], v[1], v[2], v[0] & v[1] | ~v[0] & v[2]})
                 .build();
     }
 
@@ -105,6 +118,7 @@ public class Sha2 {
                 .parityCheckTerms(ImmutableList.of(X0.add(X1).multiply(X0.add(X2)).add(X0).add(X3)))
                 .baseFn(v -> ImmutableList.of(v.get(0), v.get(1), v.get(2),
                         v.get(0) ? v.get(1) || v.get(2) : v.get(1) && v.get(2)))
+                .bitSlicedBaseFn(v -> new long[]{v[0], v[1], v[2], v[0] & (v[1] | v[2]) | v[1] & v[2]})
                 .build();
     }
 
@@ -1,7 +1,9 @@
 package securecompute.constraint;
 
+import com.google.common.collect.ImmutableList;
 import securecompute.algebra.FiniteField;
 import securecompute.algebra.module.FiniteVectorSpace;
+import securecompute.constraint.block.BlockConstraint;
 
 import java.util.List;
 
@@ -18,6 +20,19 @@ public interface AlgebraicConstraint<V, E> extends Constraint<V> {
 
     List<V> parityCheck(List<V> vector);
 
+    /**
+     * @param rows      a batch of vectors in structure-of-arrays form, that is, the rows of a block with one vector per
+     *                  column (and one row per symbol index)
+     * @param batchSize the number of vectors, that is, the length of each row
+     * @return the parity check vectors of the batch in the same form, with one row per syndrome index
+     */
+    default List<List<V>> batchParityCheck(List<List<V>> rows, int batchSize) {
+        List<List<V>> syndromes = BlockConstraint.streamLayers(rows, batchSize)
+                .map(this::parityCheck)
+                .collect(ImmutableList.toImmutableList());
+        return BlockConstraint.transpose(syndromes, redundancy());
+    }
+
     default FiniteField<E> field() {
         return (FiniteField<E>) symbolSpace().getBaseRing();
     }
@@ -43,7 +43,7 @@ public class BlockAlgebraicConstraint<V, E> extends BlockConstraint<V> implement
 
     @Override
     public List<List<V>> parityCheck(List<List<V>> vector) {
-        return mapColumns(vector, columnConstraint()::parityCheck);
+        return columnConstraint().batchParityCheck(vector, rowLength());
     }
 
     final List<List<V>> mapColumns(List<List<V>> rows, Function<List<V>, List<V>> columnMapping) {
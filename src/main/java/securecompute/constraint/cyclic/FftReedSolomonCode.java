@@ -0,0 +1,267 @@
+package securecompute.constraint.cyclic;
+
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import securecompute.algebra.FiniteField;
+import securecompute.algebra.module.singleton.SingletonVectorSpace;
+import securecompute.algebra.polynomial.AdditiveFft;
+import securecompute.algebra.polynomial.FieldPolynomialRing;
+import securecompute.algebra.polynomial.IFieldPolynomialRing;
+import securecompute.algebra.polynomial.NumberTheoreticTransform;
+import securecompute.algebra.polynomial.SubproductTree;
+import securecompute.constraint.MultiplicativeLinearCode;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A Reed-Solomon code in evaluation form, with each codeword being the values of a polynomial of degree below k over a
+ * domain of n = 2^l points on which evaluation & interpolation are fast transforms: either a coset of the subgroup of
+ * n-th roots of unity, by number-theoretic transform, or (in characteristic two) a subspace over GF(2), by additive
+ * FFT. Encoding (of the message as polynomial coefficients), decoding and parity checks thus take O(n log n) time,
+ * with no need for generator or check polynomials, and the pointwise product of codewords is a codeword of the
+ * corresponding power of the code, over the same domain. The code is not systematic.
+ */
+public class FftReedSolomonCode<E> implements MultiplicativeLinearCode<E, E> {
+
+    private final Domain<E> domain;
+    private final int length;
+    private final int dimension;
+    private final SingletonVectorSpace<E> symbolSpace;
+    private final ConcurrentMap<Integer, FftReedSolomonCode<E>> cachedCodePowers = new ConcurrentHashMap<>();
+    private final Supplier<List<E>> points = Suppliers.memoize(this::computePoints);
+
+    private FftReedSolomonCode(Domain<E> domain, int n, int k) {
+        checkArgument(k >= 0 && k <= n, "Code dimension k out of range: %s", k);
+        this.domain = domain;
+        length = n;
+        dimension = k;
+        symbolSpace = new SingletonVectorSpace<>(domain.field());
+        cachedCodePowers.put(1, this);
+    }
+
+    // Over the subgroup of n-th roots of unity.
+    public static <E> FftReedSolomonCode<E> multiplicative(int n, int k, FiniteField<E> field) {
+        return multiplicative(n, k, field, field.one());
+    }
+
+    // Over the coset of the subgroup of n-th roots of unity with the given (nonzero) offset.
+    public static <E> FftReedSolomonCode<E> multiplicative(int n, int k, FiniteField<E> field, E offset) {
+        checkArgument(Integer.bitCount(n) == 1, "Codeword length n not a power of two: %s", n);
+        checkArgument(n <= NumberTheoreticTransform.numberTheoreticTransform(field).maxLength(),
+                "Codeword length n too large for a number-theoretic transform over the field: %s", n);
+        checkArgument(!offset.equals(field.zero()), "Zero coset offset");
+        return new FftReedSolomonCode<>(new MultiplicativeDomain<>(field, n, offset), n, k);
+    }
+
+    // Over the GF(2)-span of the first l elements of the basis used by the additive FFT, for a binary field.
+    public static <E> FftReedSolomonCode<E> additive(int n, int k, FiniteField<E> field) {
+        checkArgument(Integer.bitCount(n) == 1, "Codeword length n not a power of two: %s", n);
+        checkArgument(n <= AdditiveFft.additiveFft(field).maxLength(),
+                "Codeword length n too large for an additive FFT over the field: %s", n);
+        return new FftReedSolomonCode<>(new AdditiveDomain<>(field), n, k);
+    }
+
+    @Override
+    public SingletonVectorSpace<E> symbolSpace() {
+        return symbolSpace;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    @Override
+    public int distance() {
+        return length - dimension + 1;
+    }
+
+    @Override
+    public int codistance() {
+        return dimension + 1;
+    }
+
+    // The evaluation points of the domain, in codeword order.
+    public List<E> points() {
+        return points.get();
+    }
+
+    @Override
+    public List<E> encode(List<E> message) {
+        checkArgument(message.size() == dimension, "Message length mismatch: %s", message.size());
+        E[] values = padded(message);
+        domain.evaluate(values);
+        return ImmutableList.copyOf(values);
+    }
+
+    @Override
+    public List<E> decode(List<E> codeword) {
+        return coefficients(codeword).subList(0, dimension);
+    }
+
+    // The coefficients of the interpolating polynomial of degree k and above, which vanish just for codewords:
+    @Override
+    public List<E> parityCheck(List<E> vector) {
+        return coefficients(vector).subList(dimension, length);
+    }
+
+    private List<E> coefficients(List<E> vector) {
+        checkArgument(vector.size() == length, "Vector length mismatch: %s", vector.size());
+        E[] coefficients = padded(vector);
+        domain.interpolate(coefficients);
+        return ImmutableList.copyOf(coefficients);
+    }
+
+    @Override
+    public FftReedSolomonCode<E> pow(int exponent) {
+        return cachedCodePowers.computeIfAbsent(exponent, m ->
+                new FftReedSolomonCode<>(domain, length, Math.min(Math.max((dimension - 1) * m + 1, 0), length)));
+    }
+
+    // Interpolates the known symbols to a polynomial by subproduct tree, then evaluates that over the domain by FFT.
+    @Override
+    public Function<List<E>, List<E>> interpolationFn(SortedSet<Integer> knownSymbolIndices) {
+        if (knownSymbolIndices.size() > dimension) {
+            throw new IllegalArgumentException("Overdetermined system of equations");
+        }
+        if (knownSymbolIndices.isEmpty()) {
+            List<E> zeroCodeword = Collections.nCopies(length, field().zero());
+            return u -> zeroCodeword;
+        }
+        IFieldPolynomialRing<E> polynomialRing = new FieldPolynomialRing<>(field());
+        SubproductTree<E> interpolationTree = new SubproductTree<>(polynomialRing, knownSymbolIndices.stream()
+                .map(points()::get)
+                .collect(ImmutableList.toImmutableList()));
+        return u -> {
+            E[] values = padded(interpolationTree.interpolate(u).getCoefficients());
+            domain.evaluate(values);
+            return ImmutableList.copyOf(values);
+        };
+    }
+
+    // The values of the polynomial x (unless there is no room for its coefficients, leaving just the first point):
+    private List<E> computePoints() {
+        if (length == 1) {
+            return ImmutableList.of(domain.firstPoint());
+        }
+        E[] values = padded(ImmutableList.of(field().zero(), field().one()));
+        domain.evaluate(values);
+        return ImmutableList.copyOf(values);
+    }
+
+    private E[] padded(List<E> values) {
+        E[] result = newArray(length);
+        for (int i = 0; i < length; i++) {
+            result[i] = i < values.size() ? values.get(i) : field().zero();
+        }
+        return result;
+    }
+
+    // Evaluation & interpolation (in place) of polynomials of degree below n, given by their monomial coefficients.
+    private interface Domain<E> {
+        FiniteField<E> field();
+
+        void evaluate(E[] coefficients);
+
+        void interpolate(E[] values);
+
+        E firstPoint();
+    }
+
+    private static class MultiplicativeDomain<E> implements Domain<E> {
+        private final FiniteField<E> field;
+        private final NumberTheoreticTransform<E> transform;
+        private final E offset;
+        private final E[] offsetPowers, offsetInversePowers;
+
+        MultiplicativeDomain(FiniteField<E> field, int n, E offset) {
+            this.field = field;
+            this.offset = offset;
+            transform = NumberTheoreticTransform.numberTheoreticTransform(field);
+            offsetPowers = newArray(n);
+            offsetInversePowers = newArray(n);
+            E offsetInverse = field.reciprocal(offset);
+            for (int i = 0; i < n; i++) {
+                offsetPowers[i] = i > 0 ? field.product(offsetPowers[i - 1], offset) : field.one();
+                offsetInversePowers[i] = i > 0 ? field.product(offsetInversePowers[i - 1], offsetInverse) : field.one();
+            }
+        }
+
+        @Override
+        public FiniteField<E> field() {
+            return field;
+        }
+
+        // f(c * w^i) is the transform of the coefficients of f(c * x), that is, a_i * c^i:
+        @Override
+        public void evaluate(E[] coefficients) {
+            for (int i = 0; i < coefficients.length; i++) {
+                coefficients[i] = field.product(coefficients[i], offsetPowers[i]);
+            }
+            transform.transform(field, coefficients);
+        }
+
+        @Override
+        public void interpolate(E[] values) {
+            transform.inverseTransform(field, values);
+            for (int i = 0; i < values.length; i++) {
+                values[i] = field.product(values[i], offsetInversePowers[i]);
+            }
+        }
+
+        @Override
+        public E firstPoint() {
+            return offset;
+        }
+    }
+
+    private static class AdditiveDomain<E> implements Domain<E> {
+        private final FiniteField<E> field;
+        private final AdditiveFft<E> transform;
+
+        AdditiveDomain(FiniteField<E> field) {
+            this.field = field;
+            transform = AdditiveFft.additiveFft(field);
+        }
+
+        @Override
+        public FiniteField<E> field() {
+            return field;
+        }
+
+        @Override
+        public void evaluate(E[] coefficients) {
+            transform.toNovelBasis(field, coefficients);
+            transform.transform(field, coefficients);
+        }
+
+        @Override
+        public void interpolate(E[] values) {
+            transform.inverseTransform(field, values);
+            transform.fromNovelBasis(field, values);
+        }
+
+        @Override
+        public E firstPoint() {
+            return field.zero();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> E[] newArray(int length) {
+        return (E[]) new Object[length];
+    }
+}
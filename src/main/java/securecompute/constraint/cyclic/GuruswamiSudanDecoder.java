@@ -0,0 +1,229 @@
+package securecompute.constraint.cyclic;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import securecompute.algebra.Field;
+import securecompute.algebra.Ring;
+import securecompute.algebra.polynomial.IFieldPolynomialRing;
+import securecompute.algebra.polynomial.Polynomial;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Guruswami & Sudan's list decoder for Reed-Solomon codes, finding every polynomial {@code f} of degree below k whose
+ * values agree with the received points {@code (x_i, y_i)} in more than {@code D / m} places, for a given multiplicity
+ * m. A nonzero bivariate polynomial {@code Q(x, y)} of minimal (1, k - 1)-weighted degree D is found with a zero of
+ * multiplicity m at every point, by Koetter's iterative interpolation, so that {@code Q(x, f(x))} (of degree at most D)
+ * has more than D roots and thus vanishes. The factors {@code y - f(x)} are then found coefficient by coefficient, by
+ * Roth & Ruckenstein's recursive root finding. Larger multiplicities push the decoding radius further beyond half the
+ * minimum distance, towards the Johnson bound {@code n - sqrt(n * (k - 1))}, at a steep cost in time.
+ *
+ * <p>Bivariate polynomials are held as arrays of their coefficients in y, each a polynomial in x.
+ */
+final class GuruswamiSudanDecoder<E> {
+    private final IFieldPolynomialRing<E> ring;
+    private final Field<E> field;
+    private final int degreeLimit; // k, the list being of polynomials of degree less than this
+    private final int weight; // k - 1, the weight of y in the weighted degree
+    private final int multiplicity;
+
+    GuruswamiSudanDecoder(IFieldPolynomialRing<E> ring, int dimension, int multiplicity) {
+        checkArgument(multiplicity > 0, "Non-positive multiplicity: %s", multiplicity);
+        this.ring = ring;
+        field = ring.getBaseRing();
+        degreeLimit = dimension;
+        // (dimension one is decoded as dimension two, as a weight of zero would leave the y-degree unbounded)
+        weight = Math.max(dimension - 1, 1);
+        this.multiplicity = multiplicity;
+    }
+
+    // The minimal weighted degree D of an interpolating polynomial, being the least for which there are more monomials
+    // of weighted degree at most D than there are (linear) constraints, namely m(m + 1)/2 per point.
+    private int weightedDegreeBound(int pointCount) {
+        long constraintCount = (long) pointCount * multiplicity * (multiplicity + 1) / 2;
+        for (int d = 0; ; d++) {
+            long monomialCount = 0;
+            for (int j = 0; j * weight <= d; j++) {
+                monomialCount += d - j * weight + 1;
+            }
+            if (monomialCount > constraintCount) {
+                return d;
+            }
+        }
+    }
+
+    // The number of errors which may be corrected among the given number of points.
+    int radius(int pointCount) {
+        return Math.max(pointCount - weightedDegreeBound(pointCount) / multiplicity - 1, 0);
+    }
+
+    List<Polynomial<E>> decode(List<E> xs, List<E> ys) {
+        checkArgument(xs.size() == ys.size(), "Point coordinate count mismatch: %s vs %s", xs.size(), ys.size());
+        int maxYDegree = weightedDegreeBound(xs.size()) / weight;
+        List<Polynomial<E>> candidates = new ArrayList<>();
+        findYRoots(interpolate(xs, ys, maxYDegree), 0, newArray(degreeLimit), candidates);
+
+        // Keep only the candidates within the decoding radius (in particular, of the right degree for dimension one):
+        int minAgreement = xs.size() - radius(xs.size());
+        Set<Polynomial<E>> result = new LinkedHashSet<>();
+        for (Polynomial<E> candidate : candidates) {
+            int agreement = 0;
+            for (int i = 0; i < xs.size(); i++) {
+                agreement += evaluate(field, candidate.getCoefficients(), xs.get(i)).equals(ys.get(i)) ? 1 : 0;
+            }
+            if (candidate.getDegree() < degreeLimit && agreement >= minAgreement) {
+                result.add(candidate);
+            }
+        }
+        return ImmutableList.copyOf(result);
+    }
+
+    // Koetter's algorithm, keeping a Groebner basis (for the weighted degree order) of the module of polynomials of
+    // y-degree at most L satisfying the constraints so far. Each constraint is that a Hasse derivative vanishes at a
+    // point, with the x-orders taken in increasing order for each y-order, so that multiplying a basis element by
+    // (x - x_i) satisfies the current constraint without breaking any earlier one.
+    private Polynomial<E>[] interpolate(List<E> xs, List<E> ys, int maxYDegree) {
+        List<Polynomial<E>[]> basis = new ArrayList<>(maxYDegree + 1);
+        for (int j = 0; j <= maxYDegree; j++) {
+            Polynomial<E>[] q = newPolynomialArray(maxYDegree + 1);
+            Arrays.fill(q, ring.zero());
+            q[j] = ring.one();
+            basis.add(q);
+        }
+        E[] discrepancies = newArray(maxYDegree + 1);
+        for (int i = 0; i < xs.size(); i++) {
+            E x0 = xs.get(i), y0 = ys.get(i);
+            for (int b = 0; b < multiplicity; b++) {
+                for (int a = 0; a < multiplicity - b; a++) {
+                    int pivot = -1;
+                    for (int j = 0; j <= maxYDegree; j++) {
+                        discrepancies[j] = hasseDerivative(basis.get(j), a, b, x0, y0);
+                        if (!discrepancies[j].equals(field.zero()) && (pivot < 0 ||
+                                leadingTerm(basis.get(j)) < leadingTerm(basis.get(pivot)))) {
+                            pivot = j;
+                        }
+                    }
+                    if (pivot < 0) {
+                        continue;
+                    }
+                    Polynomial<E>[] p = basis.get(pivot);
+                    for (int j = 0; j <= maxYDegree; j++) {
+                        if (j != pivot && !discrepancies[j].equals(field.zero())) {
+                            Polynomial<E>[] q = basis.get(j);
+                            for (int l = 0; l < q.length; l++) {
+                                q[l] = ring.difference(ring.scalarProduct(q[l], discrepancies[pivot]),
+                                        ring.scalarProduct(p[l], discrepancies[j]));
+                            }
+                        }
+                    }
+                    for (int l = 0; l < p.length; l++) {
+                        p[l] = ring.difference(p[l].shift(1), ring.scalarProduct(p[l], x0));
+                    }
+                }
+            }
+        }
+        Polynomial<E>[] best = basis.get(0);
+        for (Polynomial<E>[] q : basis) {
+            best = leadingTerm(q) < leadingTerm(best) ? q : best;
+        }
+        return best;
+    }
+
+    // The coefficient of u^a v^b in Q(x0 + u, y0 + v):
+    private E hasseDerivative(Polynomial<E>[] q, int a, int b, E x0, E y0) {
+        List<E> xDerivatives = new ArrayList<>(q.length);
+        for (Polynomial<E> coefficient : q) {
+            xDerivatives.add(taylorCoefficient(field, coefficient.getCoefficients(), x0, a));
+        }
+        return taylorCoefficient(field, xDerivatives, y0, b);
+    }
+
+    // The position of the leading monomial x^i y^j in the weighted degree order, with ties broken by the y-degree j:
+    private long leadingTerm(Polynomial<E>[] q) {
+        long term = -1;
+        for (int j = 0; j < q.length; j++) {
+            if (q[j].getDegree() >= 0) {
+                term = Math.max(term, (long) (q[j].getDegree() + j * weight) * q.length + j);
+            }
+        }
+        return term;
+    }
+
+    // Roth & Ruckenstein's algorithm: if y - f(x) divides Q(x, y) then f(0) is a root of Q(0, y) (once any power of x
+    // dividing Q is removed), and (f(x) - f(0)) / x is likewise a root of Q(x, x * y + f(0)), and so on recursively.
+    private void findYRoots(Polynomial<E>[] q, int depth, E[] prefix, List<Polynomial<E>> results) {
+        if (depth == degreeLimit) {
+            results.add(ring.polynomial(prefix.clone()));
+            return;
+        }
+        int xOrder = Integer.MAX_VALUE;
+        for (Polynomial<E> coefficient : q) {
+            if (coefficient.getDegree() >= 0) {
+                xOrder = Math.min(xOrder, coefficient.getOrder());
+            }
+        }
+        E[] constantTerms = newArray(q.length);
+        for (int j = 0; j < q.length; j++) {
+            q[j] = q[j].shift(-xOrder);
+            constantTerms[j] = q[j].getDegree() >= 0 ? q[j].getCoefficients().get(0) : field.zero();
+        }
+        for (E root : ring.roots(ring.polynomial(constantTerms))) {
+            prefix[depth] = root;
+            findYRoots(substitute(q, root), depth + 1, prefix, results);
+        }
+    }
+
+    // Q(x, x * y + c), as the Taylor coefficients of Q in y at c, the l-th times x^l:
+    private Polynomial<E>[] substitute(Polynomial<E>[] q, E c) {
+        List<Polynomial<E>> yCoefficients = Arrays.asList(q);
+        Polynomial<E> constant = ring.polynomial(ImmutableList.of(c));
+        Polynomial<E>[] result = newPolynomialArray(q.length);
+        for (int l = 0; l < q.length; l++) {
+            result[l] = taylorCoefficient(ring, yCoefficients, constant, l).shift(l);
+        }
+        return result;
+    }
+
+    // The l-th Taylor coefficient of the polynomial with the given coefficients at the given point, that is, the
+    // coefficient of u^l in p(point + u), found as the remainder of l + 1 successive synthetic divisions by x - point.
+    private static <T> T taylorCoefficient(Ring<T> ring, List<T> coefficients, T point, int l) {
+        List<T> quotient = coefficients;
+        T remainder = ring.zero();
+        for (int step = 0; step <= l; step++) {
+            if (quotient.isEmpty()) {
+                return ring.zero();
+            }
+            List<T> nextQuotient = new ArrayList<>(quotient.size() - 1);
+            T acc = ring.zero();
+            for (int i = quotient.size() - 1; i >= 0; i--) {
+                acc = ring.sum(ring.product(acc, point), quotient.get(i));
+                if (i > 0) {
+                    nextQuotient.add(acc);
+                }
+            }
+            remainder = acc;
+            quotient = Lists.reverse(nextQuotient);
+        }
+        return remainder;
+    }
+
+    private static <E> E evaluate(Field<E> field, List<E> coefficients, E x) {
+        return taylorCoefficient(field, coefficients, x, 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> E[] newArray(int length) {
+        return (E[]) new Object[length];
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <E> Polynomial<E>[] newPolynomialArray(int length) {
+        return new Polynomial[length];
+    }
+}
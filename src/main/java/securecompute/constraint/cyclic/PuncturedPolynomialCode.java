@@ -1,19 +1,29 @@
 package securecompute.constraint.cyclic;
 
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import securecompute.algebra.Field;
+import securecompute.algebra.Gf256;
 import securecompute.algebra.polynomial.IFieldPolynomialRing;
 import securecompute.algebra.polynomial.Polynomial;
 import securecompute.algebra.module.singleton.SingletonVectorSpace;
 import securecompute.constraint.LinearCode;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static com.google.common.base.Preconditions.checkArgument;
 
 // TODO: Is there a natural way to generalise this to 'extended' cyclic codes, e.g. the extended RS, Golay & Hamming codes?
 
 public class PuncturedPolynomialCode<E> implements LinearCode<E, E> {
 
+    static final int PARITY_MATRIX_THRESHOLD = 1 << 16;
+
     private final IFieldPolynomialRing<E> polynomialRing;
     private final SingletonVectorSpace<E> symbolSpace;
     private final int length;
@@ -25,6 +35,8 @@ public class PuncturedPolynomialCode<E> implements LinearCode<E, E> {
     private final Polynomial<E> truncatedCheckPolynomial;
     private final int punctureNumber;
     private final int shortenNumber;
+    private final Supplier<Function<List<E>, List<E>>> parityMatrixEncoder =
+            Suppliers.memoize(this::computeParityMatrixEncoder);
 
     public PuncturedPolynomialCode(int n, int k, int d, int e, Polynomial<E> generatorPolynomial) {
         if (generatorPolynomial.getDegree() < 0) {
@@ -88,6 +100,10 @@ public class PuncturedPolynomialCode<E> implements LinearCode<E, E> {
         return p.scalarMultiply(baseField.reciprocal(p.getCoefficients().get(p.getDegree())));
     }
 
+    protected IFieldPolynomialRing<E> polynomialRing() {
+        return polynomialRing;
+    }
+
     public Polynomial<E> generatorPolynomial() {
         return generatorPolynomial;
     }
@@ -145,6 +161,14 @@ public class PuncturedPolynomialCode<E> implements LinearCode<E, E> {
 
     @Override
     public List<E> encode(List<E> message) {
+        checkArgument(message.size() == dimension, "Message length mismatch: %s", message.size());
+        if ((long) dimension * (length - dimension) <= PARITY_MATRIX_THRESHOLD) {
+            return parityMatrixEncoder.get().apply(message);
+        }
+        return polynomialEncode(message);
+    }
+
+    private List<E> polynomialEncode(List<E> message) {
         return paddedCoefficients(length,
                 polynomialRing.polynomial(message)
                         .multiply(truncatedCheckPolynomial)
@@ -154,6 +178,66 @@ public class PuncturedPolynomialCode<E> implements LinearCode<E, E> {
         );
     }
 
+    // Since the code is systematic, with the message at the end of each codeword, encoding amounts to multiplying the
+    // message by the (n - k) * k matrix of parity symbols of each unit message, to get the parity symbols at the start.
+    // For codes of modest size, the matrix is precomputed on first use, which is much faster than the two polynomial
+    // multiplications needed otherwise. Columns of the matrix are accumulated a whole row at a time, on raw byte arrays
+    // in the case of Gf256.
+    private Function<List<E>, List<E>> computeParityMatrixEncoder() {
+        int parityLength = length - dimension;
+        E zero = polynomialRing.getBaseRing().zero(), one = polynomialRing.getBaseRing().one();
+        List<List<E>> parityColumns = IntStream.range(0, dimension).parallel()
+                .mapToObj(j -> polynomialEncode(IntStream.range(0, dimension)
+                        .mapToObj(i -> i == j ? one : zero)
+                        .collect(ImmutableList.toImmutableList())).subList(0, parityLength))
+                .collect(ImmutableList.toImmutableList());
+
+        if (polynomialRing.getBaseRing() instanceof Gf256) {
+            // (E is Gf256.Element here, so the encoder may be retyped)
+            @SuppressWarnings("unchecked")
+            Function<List<E>, List<E>> encoder = (Function<List<E>, List<E>>) (Function<?, ?>) gf256ParityMatrixEncoder(
+                    (Gf256) polynomialRing.getBaseRing(), (List<List<Gf256.Element>>) (List<?>) parityColumns);
+            return encoder;
+        }
+
+        Field<E> field = polynomialRing.getBaseRing();
+        return message -> {
+            List<E> parity = new ArrayList<>(Collections.nCopies(parityLength, zero));
+            for (int j = 0; j < dimension; j++) {
+                E m = message.get(j);
+                if (!m.equals(zero)) {
+                    List<E> column = parityColumns.get(j);
+                    for (int i = 0; i < parityLength; i++) {
+                        parity.set(i, field.sum(parity.get(i), field.product(column.get(i), m)));
+                    }
+                }
+            }
+            return ImmutableList.<E>builderWithExpectedSize(length).addAll(parity).addAll(message).build();
+        };
+    }
+
+    private Function<List<Gf256.Element>, List<Gf256.Element>> gf256ParityMatrixEncoder(
+            Gf256 field, List<List<Gf256.Element>> parityColumns) {
+        int parityLength = length - dimension;
+        byte[][] columns = new byte[dimension][parityLength];
+        for (int j = 0; j < dimension; j++) {
+            for (int i = 0; i < parityLength; i++) {
+                columns[j][i] = parityColumns.get(j).get(i).getValue();
+            }
+        }
+        return message -> {
+            byte[] parity = new byte[parityLength];
+            for (int j = 0; j < dimension; j++) {
+                field.mulScalarAdd(parity, columns[j], message.get(j).getValue());
+            }
+            ImmutableList.Builder<Gf256.Element> builder = ImmutableList.builderWithExpectedSize(length);
+            for (byte value : parity) {
+                builder.add(field.element(value));
+            }
+            return builder.addAll(message).build();
+        };
+    }
+
     @Override
     public List<E> decode(List<E> codeword) {
         return codeword.subList(length - dimension, length);
@@ -1,31 +1,106 @@
 package securecompute.constraint.cyclic;
 
+import com.google.common.base.Suppliers;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import securecompute.ShallowCopyable;
 import securecompute.StreamUtils;
+import securecompute.algebra.EuclideanDomain.DivModResult;
+import securecompute.algebra.EuclideanDomain.PartialGcdExtResult;
+import securecompute.algebra.Field;
 import securecompute.algebra.FiniteField;
 import securecompute.algebra.polynomial.FieldPolynomialRing;
 import securecompute.algebra.polynomial.Polynomial;
+import securecompute.algebra.polynomial.SubproductTree;
 import securecompute.constraint.MultiplicativeLinearCode;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.SortedSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 public class ReedSolomonCode<E> extends PuncturedPolynomialCode<E> implements MultiplicativeLinearCode<E, E> {
 
-    // TODO: Consider caching all RS codes with a default global cache, using a static factory instead of a constructor. (Can do this for other codes, too.)
+    private static final int SUBPRODUCT_TREE_THRESHOLD = 64;
+    private static final int MAX_CACHED_CODES_PER_FIELD = 256;
+
+    // Equal fields are first canonicalised to a single (weakly held) instance, as the cache below is identity-keyed:
+    private static final Interner<FiniteField<?>> FIELD_INTERNER = Interners.newWeakInterner();
+    private static final LoadingCache<FiniteField<?>, FieldCodeCache> CACHE = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build(CacheLoader.from(FieldCodeCache::new));
+
     private final ConcurrentMap<Integer, ReedSolomonCode<E>> cachedCodePowers = new ConcurrentHashMap<>();
+    private final Supplier<SubproductTree<E>> evaluationTree = Suppliers.memoize(this::computeEvaluationTree);
+    private final FieldCodeCache fieldCodeCache; // the global cache the code is from, else null
 
     public ReedSolomonCode(int n, int k, FiniteField<E> field) {
+        this(n, k, field, null);
+    }
+
+    private ReedSolomonCode(int n, int k, FiniteField<E> field, FieldCodeCache fieldCodeCache) {
         super(n, k, n - k + 1, k + 1, generatorPolynomial(n, k, field));
+        this.fieldCodeCache = fieldCodeCache;
         cachedCodePowers.put(1, this);
     }
 
+    /**
+     * A canonical instance of the code with the given parameters, from a global cache (of bounded size for each field,
+     * which is held only weakly), to save repeatedly computing its generator polynomial & other precomputed tables.
+     */
+    public static <E> ReedSolomonCode<E> of(int n, int k, FiniteField<E> field) {
+        return CACHE.getUnchecked(FIELD_INTERNER.intern(field)).get(n, k);
+    }
+
+    // The combined hit & miss counts, etc., of the global cache, over all fields which are still live.
+    public static CacheStats cacheStats() {
+        return CACHE.asMap().values().stream()
+                .map(fieldCodeCache -> fieldCodeCache.codes.stats())
+                .reduce(new CacheStats(0, 0, 0, 0, 0, 0), CacheStats::plus);
+    }
+
+    private static class FieldCodeCache {
+        // The codes are over a clone of the key field where possible, to avoid strong references from the cache
+        // values to their keys, via the field elements held in each code.
+        final FiniteField<?> clonedField;
+        final Cache<List<Integer>, ReedSolomonCode<?>> codes = CacheBuilder.newBuilder()
+                .maximumSize(MAX_CACHED_CODES_PER_FIELD)
+                .recordStats()
+                .build();
+
+        FieldCodeCache(FiniteField<?> field) {
+            clonedField = ShallowCopyable.tryClone(field);
+        }
+
+        @SuppressWarnings("unchecked")
+        <E> ReedSolomonCode<E> get(int n, int k) {
+            try {
+                return (ReedSolomonCode<E>) codes.get(ImmutableList.of(n, k),
+                        () -> new ReedSolomonCode<>(n, k, (FiniteField<E>) clonedField, this));
+            } catch (ExecutionException | UncheckedExecutionException e) {
+                Throwables.throwIfUnchecked(e.getCause());
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
     // TODO: Add 'primitivePower' parameter:
     private static <E> Polynomial<E> generatorPolynomial(int n, int k, FiniteField<E> field) {
         if (n < k) {
@@ -38,18 +113,30 @@ public class ReedSolomonCode<E> extends PuncturedPolynomialCode<E> implements Mu
         E primitiveElement = field.getPrimitiveElement();
         FieldPolynomialRing<E> polynomialRing = new FieldPolynomialRing<>(field);
 
-        Stream<Polynomial<E>> linearFactors = IntStream.range(0, k)
-                .mapToObj(i -> field.power(primitiveElement, i))
-                .map(x -> polynomialRing.polynomial(field.negative(x), field.one()));
+        List<E> roots = Stream.iterate(field.one(), x -> field.product(x, primitiveElement))
+                .limit(k)
+                .collect(ImmutableList.toImmutableList());
 
-        Polynomial<E> checkPolynomial = polynomialRing.product(linearFactors);
+        Polynomial<E> checkPolynomial = k > 0
+                ? new SubproductTree<>(polynomialRing, roots).getRootPolynomial()
+                : polynomialRing.one();
         return polynomialRing.one().shift(n + k - 1).div(checkPolynomial);
     }
 
     @Override
     public MultiplicativeLinearCode<E, E> pow(int exponent) {
-        return cachedCodePowers.computeIfAbsent(exponent, m ->
-                new ReedSolomonCode<>(length(), Math.min(Math.max((dimension() - 1) * m + 1, 0), length()), field()));
+        return cachedCodePowers.computeIfAbsent(exponent, m -> {
+            int k = Math.min(Math.max((dimension() - 1) * m + 1, 0), length());
+            // (keeping to the same global cache as this code, as the key of that is not our own field, but its clone)
+            return fieldCodeCache != null ? fieldCodeCache.get(length(), k) : of(length(), k, field());
+        });
+    }
+
+    private List<E> sinusoidal() {
+        E generator = field().reciprocal(field().getPrimitiveElement());
+        return Stream.iterate(field().one(), x -> field().product(x, generator))
+                .limit(length())
+                .collect(ImmutableList.toImmutableList());
     }
 
     @Override
@@ -57,11 +144,17 @@ public class ReedSolomonCode<E> extends PuncturedPolynomialCode<E> implements Mu
         if (knownSymbolIndices.size() > dimension()) {
             throw new IllegalArgumentException("Overdetermined system of equations");
         }
+        if (knownSymbolIndices.size() >= SUBPRODUCT_TREE_THRESHOLD) {
+            // interpolate & re-evaluate by subproduct trees, rather than building an n * k matrix of basis vectors:
+            SubproductTree<E> evaluationTree = this.evaluationTree.get();
+            List<E> knownPoints = knownSymbolIndices.stream()
+                    .map(evaluationTree.getPoints()::get)
+                    .collect(ImmutableList.toImmutableList());
+            SubproductTree<E> interpolationTree = new SubproductTree<>(polynomialRing(), knownPoints);
+            return u -> evaluationTree.evaluate(interpolationTree.interpolate(u));
+        }
 
-        E generator = field().reciprocal(field().getPrimitiveElement());
-        List<E> sinusoidal = Stream.iterate(field().one(), x -> field().product(x, generator))
-                .limit(length())
-                .collect(ImmutableList.toImmutableList());
+        List<E> sinusoidal = sinusoidal();
 
         int[] knownSymbolIndexArray = knownSymbolIndices.stream().mapToInt(i -> i).toArray();
 
@@ -74,10 +167,9 @@ public class ReedSolomonCode<E> extends PuncturedPolynomialCode<E> implements Mu
                 .map(v -> productsOfAllBarOne(v).collect(ImmutableList.toImmutableList()))
                 .collect(ImmutableList.toImmutableList());
 
-        List<E> scaleFactors = IntStream.range(0, knownSymbolIndexArray.length)
+        List<E> scaleFactors = Field.reciprocals(field(), IntStream.range(0, knownSymbolIndexArray.length)
                 .mapToObj(i -> scaledTransposedBasis.get(knownSymbolIndexArray[i]).get(i))
-                .map(field()::reciprocal)
-                .collect(ImmutableList.toImmutableList());
+                .collect(ImmutableList.toImmutableList()));
 
         List<List<E>> transposedBasis = scaledTransposedBasis.stream()
                 .map(v -> StreamUtils.zip(scaleFactors.stream(), v.stream(), field()::product)
@@ -104,16 +196,92 @@ public class ReedSolomonCode<E> extends PuncturedPolynomialCode<E> implements Mu
 //        return super.interpolationFn(knownSymbolIndices);
     }
 
+    /**
+     * Corrects a received word with {@code s} erasures (marked by nulls) and up to {@code (d - 1 - s) / 2} errors, by
+     * Gao's algorithm. With the codewords being the values of polynomials of degree below k at the evaluation points,
+     * the received symbols are interpolated to a polynomial {@code R}, then the extended Euclidean algorithm is run on
+     * {@code M} (the product of {@code x - a_i} over the unerased points) and {@code R} until the remainder
+     * {@code g = u * M + v * R} first has degree below {@code (n - s + k) / 2}. The message polynomial is then
+     * {@code g / v}, provided that this divides exactly with a quotient of degree below k.
+     *
+     * @throws IllegalArgumentException if there are too many errors or erasures to correct
+     */
+    public List<E> correct(List<E> received) {
+        checkArgument(received.size() == length(), "Received word length mismatch: %s", received.size());
+        if (dimension() == 0) {
+            return Collections.nCopies(length(), field().zero());
+        }
+        SubproductTree<E> evaluationTree = this.evaluationTree.get();
+        int[] knownIndices = IntStream.range(0, length()).filter(i -> received.get(i) != null).toArray();
+        if (knownIndices.length < dimension()) {
+            throw new IllegalArgumentException("Too many erasures to correct");
+        }
+        SubproductTree<E> interpolationTree = knownIndices.length == length() ? evaluationTree
+                : new SubproductTree<>(polynomialRing(), IntStream.of(knownIndices)
+                .mapToObj(evaluationTree.getPoints()::get)
+                .collect(ImmutableList.toImmutableList()));
+        Polynomial<E> interpolant = interpolationTree.interpolate(IntStream.of(knownIndices)
+                .mapToObj(received::get)
+                .collect(ImmutableList.toImmutableList()));
+
+        PartialGcdExtResult<Polynomial<E>> r = polynomialRing().partialGcdExtResult(
+                interpolationTree.getRootPolynomial(), interpolant, (knownIndices.length + dimension() + 1) / 2);
+        DivModResult<Polynomial<E>> divModResult = polynomialRing().divMod(r.right(), r.t());
+        if (divModResult.getRemainder().getDegree() >= 0 || divModResult.getQuotient().getDegree() >= dimension()) {
+            throw new IllegalArgumentException("Too many errors to correct");
+        }
+        return evaluationTree.evaluate(divModResult.getQuotient());
+    }
+
+    /**
+     * The number of errors that {@link #listCorrect} is sure to correct with the given multiplicity, in a received word
+     * with no erasures. (With s erasures, it is as for a code of length n - s.) For multiplicity one, this is
+     * Sudan's radius, which may be below half the minimum distance for high rate codes.
+     */
+    public int listDecodingRadius(int multiplicity) {
+        return new GuruswamiSudanDecoder<>(polynomialRing(), dimension(), multiplicity).radius(length());
+    }
+
+    /**
+     * Lists every codeword within the Guruswami-Sudan decoding radius of a received word, which may have erasures
+     * (marked by nulls). Such a list may be nonempty (and have more than one codeword) far beyond half the minimum
+     * distance, with larger multiplicities giving larger radii at the cost of slower decoding.
+     */
+    public List<List<E>> listCorrect(List<E> received, int multiplicity) {
+        checkArgument(received.size() == length(), "Received word length mismatch: %s", received.size());
+        if (dimension() == 0) {
+            return ImmutableList.of(Collections.nCopies(length(), field().zero()));
+        }
+        SubproductTree<E> evaluationTree = this.evaluationTree.get();
+        int[] knownIndices = IntStream.range(0, length()).filter(i -> received.get(i) != null).toArray();
+        List<E> xs = IntStream.of(knownIndices)
+                .mapToObj(evaluationTree.getPoints()::get)
+                .collect(ImmutableList.toImmutableList());
+        List<E> ys = IntStream.of(knownIndices)
+                .mapToObj(received::get)
+                .collect(ImmutableList.toImmutableList());
+        return new GuruswamiSudanDecoder<>(polynomialRing(), dimension(), multiplicity).decode(xs, ys).stream()
+                .map(evaluationTree::evaluate)
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    private SubproductTree<E> computeEvaluationTree() {
+        return new SubproductTree<>(polynomialRing(), sinusoidal());
+    }
+
+    // uses prefix & suffix products, so that no inversions are needed (and zeros need no special handling)
     private Stream<E> productsOfAllBarOne(List<E> elements) {
-        int i = elements.indexOf(field().zero());
-        if (i >= 0) {
-            elements = new ArrayList<>(elements);
-            elements.remove(i);
-            E product = field().product(elements);
-            return IntStream.range(0, elements.size() + 1).mapToObj(j -> i == j ? product : field().zero());
-        } else {
-            E product = field().product(elements);
-            return elements.stream().map(x -> field().quotient(product, x));
+        int n = elements.size();
+        List<E> suffixProducts = new ArrayList<>(Collections.nCopies(n + 1, field().one()));
+        for (int i = n; i-- > 0; ) {
+            suffixProducts.set(i, field().product(elements.get(i), suffixProducts.get(i + 1)));
+        }
+        Stream.Builder<E> builder = Stream.builder();
+        E prefixProduct = field().one();
+        for (int i = 0; i < n; i++) {
+            builder.add(field().product(prefixProduct, suffixProducts.get(i + 1)));
+            prefixProduct = field().product(prefixProduct, elements.get(i));
         }
+        return builder.build();
     }
 }
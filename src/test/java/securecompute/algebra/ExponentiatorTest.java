@@ -0,0 +1,31 @@
+package securecompute.algebra;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExponentiatorTest {
+    private static final BigInteger P = BigInteger.ONE.shiftLeft(127).subtract(BigInteger.ONE);
+
+    @Test
+    void testPowerMatchesModPow() {
+        LargePrimeField field = new LargePrimeField(P);
+        Random rnd = new Random(2468);
+
+        for (int bitLength : new int[]{0, 1, 2, 3, 7, 8, 20, 64, 127, 300}) {
+            BigInteger exponent = new BigInteger(bitLength, rnd).setBit(Math.max(bitLength - 1, 0));
+            Exponentiator exponentiator = new Exponentiator(exponent);
+            for (int i = 0; i < 5; i++) {
+                BigInteger x = new BigInteger(127, rnd).mod(P);
+                assertEquals(x.modPow(exponent, P), exponentiator.power(field, field.coset(x)).getWitness());
+                assertEquals(x.modPow(exponent, P), field.power(field.coset(x), exponent).getWitness());
+            }
+        }
+        assertEquals(field.one(), new Exponentiator(BigInteger.ZERO).power(field, field.zero()));
+        assertEquals(1 << 30, new Exponentiator(BigInteger.valueOf(30)).power(IntegerRing.INSTANCE, 2));
+        assertThrows(ArithmeticException.class, () -> new Exponentiator(BigInteger.ONE.negate()));
+    }
+}
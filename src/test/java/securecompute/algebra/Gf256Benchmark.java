@@ -0,0 +1,69 @@
+package securecompute.algebra;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Compares the Gf256 multiplication modes. Run 'main' (or 'org.openjdk.jmh.Main Gf256Benchmark') on the test classpath.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Gf256Benchmark {
+
+    @Param({"LOG_EXP", "SPLIT_NIBBLE", "PRODUCT_TABLE"})
+    Gf256.MultiplicationMode multiplicationMode;
+
+    @Param({"4096"})
+    int rowLength;
+
+    private Gf256 field;
+    private byte[] src, dst;
+    private Gf256.Element[] elements;
+    private byte coefficient;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1234);
+        field = new Gf256(0b100011011, 0b11, multiplicationMode);
+        src = new byte[rowLength];
+        dst = new byte[rowLength];
+        random.nextBytes(src);
+        random.nextBytes(dst);
+        elements = new Gf256.Element[rowLength];
+        for (int i = 0; i < rowLength; i++) {
+            elements[i] = field.element(src[i]);
+        }
+        coefficient = (byte) (random.nextInt(255) + 1);
+    }
+
+    @Benchmark
+    public byte[] mulScalarAdd() {
+        field.mulScalarAdd(dst, src, coefficient);
+        return dst;
+    }
+
+    @Benchmark
+    public byte dot() {
+        return field.dot(src, dst);
+    }
+
+    @Benchmark
+    public Gf256.Element elementMultiplyByConstant() {
+        Gf256.Element c = field.element(coefficient), acc = field.zero();
+        for (Gf256.Element elt : elements) {
+            acc = acc.add(elt.multiply(c));
+        }
+        return acc;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(Gf256Benchmark.class.getSimpleName()).build()).run();
+    }
+}
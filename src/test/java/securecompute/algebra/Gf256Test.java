@@ -1,7 +1,11 @@
 package securecompute.algebra;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Random;
 import java.util.stream.LongStream;
@@ -103,4 +107,128 @@ class Gf256Test {
             }
         }));
     }
+
+    @ParameterizedTest
+    @EnumSource(Gf256.MultiplicationMode.class)
+    void testBulkArithmetic(Gf256.MultiplicationMode multiplicationMode) {
+        Random rnd = new Random(3434);
+        Gf256 aesField = new Gf256(0b100011011, 0b11, multiplicationMode);
+        Gf256 logExpAesField = new Gf256(0b100011011, 0b11);
+
+        assertEquals(logExpAesField, aesField);
+        assertEquals(aesField, logExpAesField.withMultiplicationMode(multiplicationMode));
+        assertEquals(multiplicationMode, logExpAesField.withMultiplicationMode(multiplicationMode).getMultiplicationMode());
+
+        for (int x = 0; x < 256; x++) {
+            for (int y = 0; y < 256; y++) {
+                assertEquals(logExpAesField.element(x).multiply(logExpAesField.element(y)).getValue(),
+                        aesField.multiply((byte) x, (byte) y));
+            }
+            assertEquals(aesField.element(x).recipOrZero().getValue(), aesField.recipOrZero((byte) x));
+        }
+
+        byte[] a = new byte[100], b = new byte[100], c = new byte[100], expected = new byte[100];
+        rnd.nextBytes(a);
+        rnd.nextBytes(b);
+        a[3] = b[5] = 0;
+        byte coefficient = (byte) 0xb7;
+
+        aesField.addInto(c, a, b);
+        for (int i = 0; i < 100; i++) {
+            expected[i] = aesField.element(a[i]).add(aesField.element(b[i])).getValue();
+        }
+        assertArrayEquals(expected, c);
+
+        aesField.mulScalar(c, a, coefficient);
+        for (int i = 0; i < 100; i++) {
+            expected[i] = aesField.element(a[i]).multiply(aesField.element(coefficient)).getValue();
+        }
+        assertArrayEquals(expected, c);
+
+        aesField.mulScalarAdd(c, b, coefficient);
+        for (int i = 0; i < 100; i++) {
+            expected[i] = aesField.element(expected[i]).add(aesField.element(b[i]).multiply(aesField.element(coefficient))).getValue();
+        }
+        assertArrayEquals(expected, c);
+
+        Gf256.Element dot = aesField.zero();
+        for (int i = 0; i < 100; i++) {
+            dot = dot.add(aesField.element(a[i]).multiply(aesField.element(b[i])));
+        }
+        assertEquals(dot.getValue(), aesField.dot(a, b));
+
+        c = a.clone();
+        aesField.recipOrZero(c);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(aesField.recipOrZero(a[i]), c[i]);
+        }
+
+        ByteBuffer bufferA = ByteBuffer.wrap(a, 10, 50), bufferB = ByteBuffer.wrap(b, 20, 50);
+        ByteBuffer bufferC = ByteBuffer.allocateDirect(50);
+        aesField.addInto(bufferC, bufferA, bufferB);
+        aesField.mulScalarAdd(bufferC, bufferA, coefficient);
+        for (int i = 0; i < 50; i++) {
+            assertEquals(aesField.element(a[i + 10]).add(aesField.element(b[i + 20]))
+                    .add(aesField.element(a[i + 10]).multiply(aesField.element(coefficient))).getValue(), bufferC.get(i));
+        }
+        assertEquals(10, bufferA.position());
+        assertEquals(0, bufferC.position());
+        assertEquals(aesField.dot(Arrays.copyOfRange(a, 10, 60), Arrays.copyOfRange(b, 20, 70)),
+                aesField.dot(bufferA, bufferB));
+
+        assertThrows(IllegalArgumentException.class, () -> aesField.addInto(new byte[3], new byte[3], new byte[4]));
+    }
+
+    @Test
+    void testQuadraticFieldArithmetic() {
+        Random rnd = new Random(5656);
+        Gf256 aesField = new Gf256(0b100011011, 0b11);
+        Gf256.Element a = aesField.element(0b100001), b = aesField.one();
+        Gf65536 quadraticField = new Gf65536(a, b);
+
+        assertAll(Collections.nCopies(100, () -> {
+            Gf65536.Element x = quadraticField.sampleUniformly(rnd), y = quadraticField.sampleUniformly(rnd);
+
+            Gf256.Element x1 = x.getLsb(), x2 = x.getMsb(), y1 = y.getLsb(), y2 = y.getMsb();
+            Gf256.Element z1 = x1.multiply(y1), z2 = x1.multiply(y2).add(x2.multiply(y1)), z3 = x2.multiply(y2);
+            Gf65536.Element expected = quadraticField.element(z1.subtract(z3.multiply(a)), z2.subtract(z3.multiply(b)));
+
+            assertEquals(expected, x.multiply(y));
+            assertEquals(expected.getValue(), quadraticField.multiply(x.getValue(), y.getValue()));
+            assertSame(quadraticField.element(x.getValue()), quadraticField.element(x.getLsb(), x.getMsb()));
+            if (!x.equals(quadraticField.zero())) {
+                assertEquals(quadraticField.one(), x.multiply(x.recip()));
+                assertEquals(x, quadraticField.exp(quadraticField.log(x)));
+            }
+        }));
+
+        short[] u = new short[50], v = new short[50], w = new short[50];
+        for (int i = 0; i < 50; i++) {
+            u[i] = (short) rnd.nextInt(65536);
+            v[i] = (short) rnd.nextInt(65536);
+        }
+        short coefficient = (short) 0xbeef;
+        quadraticField.addInto(w, u, v);
+        quadraticField.mulScalarAdd(w, u, coefficient);
+
+        Gf65536.Element c = quadraticField.element(coefficient), dot = quadraticField.zero();
+        for (int i = 0; i < 50; i++) {
+            Gf65536.Element x = quadraticField.element(u[i]), y = quadraticField.element(v[i]);
+            assertEquals(x.add(y).add(x.multiply(c)).getValue(), w[i]);
+            dot = dot.add(x.multiply(y));
+        }
+        assertEquals(dot.getValue(), quadraticField.dot(u, v));
+
+        quadraticField.mulScalar(w, v, coefficient);
+        for (int i = 0; i < 50; i++) {
+            assertEquals(quadraticField.element(v[i]).multiply(c).getValue(), w[i]);
+        }
+
+        u[7] = 0;
+        w = u.clone();
+        quadraticField.recipOrZero(w);
+        for (int i = 0; i < 50; i++) {
+            assertEquals(quadraticField.element(u[i]).recipOrZero().getValue(), w[i]);
+        }
+    }
 }
@@ -4,7 +4,9 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.math.BigInteger;
+import java.util.Collections;
 import java.util.Objects;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -34,4 +36,35 @@ class LargePrimeFieldTest {
             }
         }));
     }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 5, 8, 16})
+    void testSqrtWithWindowSize(int windowSize) {
+        for (int p : new int[]{7681, 12289}) {
+            LargePrimeField zP = new LargePrimeField(BigInteger.valueOf(p));
+            PowerTwoRootsOfUnity<LargePrimeField.Coset> roots =
+                    PowerTwoRootsOfUnity.powerTwoRootsOfUnity(zP, windowSize);
+
+            assertEquals(p / 2, zP.getElements().filter(x -> {
+                LargePrimeField.Coset y = roots.invSqrt(zP, x).getWitness();
+                assertTrue(y == null || zP.one().equals(y.multiply(y).multiply(x)));
+                return y != null;
+            }).count());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"18446744069414584321", "461168601842738790401"})
+    void testSqrtWithHighTwoAdicity(String pString) {
+        BigInteger p = new BigInteger(pString);
+        LargePrimeField zP = new LargePrimeField(p);
+        Random rnd = new Random(1357);
+
+        assertAll(Collections.nCopies(50, () -> {
+            LargePrimeField.Coset x = zP.sampleUniformly(rnd), xx = x.multiply(x);
+            assertEquals(x.plusMinus(), zP.sqrt(xx));
+            assertEquals(zP.one().plusMinus(), zP.product(zP.invSqrt(xx), x.plusMinus()));
+            assertEquals(PlusMinus.ofMissing(zP), zP.sqrt(xx.multiply(zP.getPrimitiveElement())));
+        }));
+    }
 }
@@ -0,0 +1,107 @@
+package securecompute.algebra;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import securecompute.algebra.elliptic.P1PointCoordinates;
+import securecompute.algebra.elliptic.ProjectiveTwistedEdwardsCurve;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MontgomeryPrimeFieldTest {
+    private static final BigInteger P_25519 = new BigInteger("7fffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffed", 16);
+    private static final BigInteger L_25519 = new BigInteger("1000000000000000000000000000000014def9dea2f79cd65812631a5cf5d3ed", 16);
+    private static final BigInteger B_X = new BigInteger("216936d3cd6e53fec0a4e231fdd6dc5c692cc7609525a7b2c9562d608f25d51a", 16);
+    private static final BigInteger B_Y = new BigInteger("6666666666666666666666666666666666666666666666666666666666666658", 16);
+
+    private static final List<BigInteger> P_MINUS_1_PRIME_FACTORS = Stream.of(
+            "2", "2", "3", "65147", "74058212732561358302231226437062788676166966415465897661863160754340907"
+    ).map(BigInteger::new).collect(ImmutableList.toImmutableList());
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "3", "257", "4294967291", "18446744073709551557", "2305843009213693951",
+            "7fffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffed",
+            "fffffffffffffffffffffffffffffffffffffffffffffffffffffffefffffc2f"
+    })
+    void testArithmetic(String pString) {
+        BigInteger p = pString.length() > 20 ? new BigInteger(pString, 16) : new BigInteger(pString);
+        MontgomeryPrimeField field = new MontgomeryPrimeField(p);
+        LargePrimeField referenceField = new LargePrimeField(p);
+        Random rnd = new Random(7878);
+
+        assertEquals(BigInteger.ZERO, field.zero().toBigInteger());
+        assertEquals(BigInteger.ONE, field.one().toBigInteger());
+        assertEquals(p.subtract(BigInteger.ONE), field.one().negate().toBigInteger());
+        assertEquals(field.zero(), field.fromBigInteger(p));
+
+        assertAll(Collections.nCopies(50, () -> {
+            LargePrimeField.Coset x = referenceField.sampleUniformly(rnd), y = referenceField.sampleUniformly(rnd);
+            MontgomeryPrimeField.Element u = field.element(x.getWitness()), v = field.element(y.getWitness());
+
+            assertEquals(x.getWitness(), u.toBigInteger());
+            assertEquals(x.add(y).getWitness(), u.add(v).toBigInteger());
+            assertEquals(x.subtract(y).getWitness(), u.subtract(v).toBigInteger());
+            assertEquals(x.negate().getWitness(), u.negate().toBigInteger());
+            assertEquals(x.multiply(y).getWitness(), u.multiply(v).toBigInteger());
+            assertEquals(x.recipOrZero().getWitness(), u.recipOrZero().toBigInteger());
+            assertEquals(x.pow(12345).getWitness(), u.pow(12345).toBigInteger());
+            assertEquals(u, field.select(ImmutableList.of(v, u, v), 1));
+        }));
+
+        MontgomeryPrimeField.Element[] elements = Stream.generate(() -> field.sampleUniformly(rnd)).limit(50)
+                .toArray(MontgomeryPrimeField.Element[]::new);
+        elements[10] = field.zero();
+        MontgomeryPrimeField.Element[] reciprocals = elements.clone();
+        field.reciprocalOrZero(reciprocals);
+        for (int i = 0; i < elements.length; i++) {
+            assertEquals(elements[i].recipOrZero(), reciprocals[i]);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {3, 5, 7, 11, 13, 127, 193, 257, 3329})
+    void testSqrt(int p) {
+        MontgomeryPrimeField zP = new MontgomeryPrimeField(BigInteger.valueOf(p));
+
+        long squareCount = zP.getElements().map(zP::sqrt).map(PlusMinus::getWitness).filter(Objects::nonNull).count();
+        assertEquals(p / 2 + 1, squareCount);
+        assertEquals(p - 1, zP.getElements().distinct().count() - 1);
+
+        assertAll(zP.getElements().map(x -> () -> {
+            MontgomeryPrimeField.Element y = zP.invSqrt(x).getWitness();
+            if (y != null) {
+                assertEquals(zP.one(), y.multiply(y).multiply(x));
+                assertFalse(y.toBigInteger().testBit(0));
+            }
+        }));
+    }
+
+    @Test
+    void testEd25519() {
+        MontgomeryPrimeField zP = new MontgomeryPrimeField(P_25519, P_MINUS_1_PRIME_FACTORS);
+        ProjectiveTwistedEdwardsCurve<MontgomeryPrimeField.Element> ed25519 = new ProjectiveTwistedEdwardsCurve<>(
+                zP, zP.one().negate(), zP.fromLong(-121665).divide(121666)
+        );
+        assertEquals(zP.fromLong(2), zP.getPrimitiveElement());
+
+        ProjectiveTwistedEdwardsCurve.Point<MontgomeryPrimeField.Element> b = ed25519.point(
+                zP.element(B_X), zP.element(B_Y), zP.one());
+        assertEquals(ed25519.zero(), b.multiply(L_25519));
+
+        ProjectiveTwistedEdwardsCurve.Point<MontgomeryPrimeField.Element> p = b.multiply(12345);
+        P1PointCoordinates<MontgomeryPrimeField.Element> compressed = ed25519.plusMinus(p).normalCoordinates().get();
+        ProjectiveTwistedEdwardsCurve.Point<MontgomeryPrimeField.Element> decoded = ed25519.plusMinusPoint(
+                compressed.x(), compressed.y()).getWitness();
+        assertNotNull(decoded);
+        assertTrue(decoded.equals(p) || decoded.equals(p.negate()));
+    }
+}
@@ -0,0 +1,146 @@
+package securecompute.algebra;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import securecompute.constraint.cyclic.ReedSolomonCode;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmallPrimeFieldTest {
+
+    @ParameterizedTest
+    @ValueSource(longs = {
+            2, 3, 7, 65537, 2147483647, 2013265921, 3221225473L, 2305843009213693951L, 4179340454199820289L,
+            4611686018427387847L
+    })
+    void testArithmetic(long p) {
+        SmallPrimeField field = new SmallPrimeField(p);
+        LargePrimeField referenceField = new LargePrimeField(BigInteger.valueOf(p));
+        Random rnd = new Random(5656);
+
+        assertEquals(0, field.zero().getValue());
+        assertEquals(1, field.one().getValue());
+        assertEquals(p - 1, field.one().negate().getValue());
+        assertEquals(field.zero(), field.fromBigInteger(BigInteger.valueOf(p)));
+        assertEquals(field.one().negate(), field.fromLong(-1));
+
+        assertAll(Collections.nCopies(50, () -> {
+            LargePrimeField.Coset x = referenceField.sampleUniformly(rnd), y = referenceField.sampleUniformly(rnd);
+            SmallPrimeField.Element u = field.fromBigInteger(x.getWitness()), v = field.fromBigInteger(y.getWitness());
+
+            assertEquals(x.getWitness(), u.toBigInteger());
+            assertEquals(x.add(y).getWitness(), u.add(v).toBigInteger());
+            assertEquals(x.subtract(y).getWitness(), u.subtract(v).toBigInteger());
+            assertEquals(x.negate().getWitness(), u.negate().toBigInteger());
+            assertEquals(x.multiply(y).getWitness(), u.multiply(v).toBigInteger());
+            assertEquals(x.recipOrZero().getWitness(), u.recipOrZero().toBigInteger());
+            assertEquals(x.pow(12345).getWitness(), u.pow(12345).toBigInteger());
+        }));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {7, 2147483647, 3221225473L, 2305843009213693951L, 4611686018427387847L})
+    void testBulkArithmetic(long p) {
+        SmallPrimeField field = new SmallPrimeField(p);
+        Random rnd = new Random(3434);
+        List<SmallPrimeField.Element> left = randomElements(field, rnd, 100), right = randomElements(field, rnd, 100);
+        long[] leftValues = values(left), rightValues = values(right), dst = new long[100];
+        SmallPrimeField.Element c = field.sampleUniformly(rnd);
+
+        field.addInto(dst, leftValues, rightValues);
+        assertArrayEquals(values(IntStream.range(0, 100).mapToObj(i -> left.get(i).add(right.get(i)))
+                .collect(Collectors.toList())), dst);
+
+        field.mulScalar(dst, leftValues, c.getValue());
+        assertArrayEquals(values(left.stream().map(c::multiply).collect(Collectors.toList())), dst);
+
+        field.mulScalarAdd(dst, rightValues, c.getValue());
+        assertArrayEquals(values(IntStream.range(0, 100).mapToObj(i -> c.multiply(left.get(i).add(right.get(i))))
+                .collect(Collectors.toList())), dst);
+
+        assertEquals(IntStream.range(0, 100).mapToObj(i -> left.get(i).multiply(right.get(i)))
+                .reduce(field.zero(), SmallPrimeField.Element::add).getValue(), field.dot(leftValues, rightValues));
+
+        assertThrows(IllegalArgumentException.class, () -> field.dot(leftValues, new long[99]));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {7, 2147483647, 2305843009213693951L, 4611686018427387847L})
+    void testBatchInversion(long p) {
+        SmallPrimeField field = new SmallPrimeField(p);
+        long[] values = values(randomElements(field, new Random(7878), 1000));
+        values[0] = values[500] = values[999] = 0;
+        long[] expected = Arrays.stream(values).map(field::recipOrZero).toArray();
+
+        long[] reciprocals = values.clone();
+        field.recipOrZero(reciprocals);
+        assertArrayEquals(expected, reciprocals);
+
+        reciprocals = values.clone();
+        field.recipOrZero(reciprocals, 64);
+        assertArrayEquals(expected, reciprocals);
+
+        List<SmallPrimeField.Element> elements = Arrays.stream(values).filter(x -> x != 0)
+                .mapToObj(field::element).collect(Collectors.toList());
+        List<SmallPrimeField.Element> expectedElements = Lists.transform(elements, SmallPrimeField.Element::recip);
+        assertEquals(expectedElements, Field.reciprocals(field, elements));
+        assertEquals(expectedElements, Field.reciprocals(field, elements, 100));
+        assertThrows(ArithmeticException.class, () -> Field.reciprocals(field, Arrays.asList(field.one(), field.zero())));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {3, 5, 7, 11, 13, 127, 193, 257, 3329})
+    void testSqrt(long p) {
+        SmallPrimeField zP = new SmallPrimeField(p);
+
+        long squareCount = zP.getElements().map(zP::sqrt).map(PlusMinus::getWitness).filter(Objects::nonNull).count();
+        assertEquals(p / 2 + 1, squareCount);
+        assertEquals(p - 1, zP.getElements().distinct().count() - 1);
+
+        assertAll(zP.getElements().map(x -> () -> {
+            SmallPrimeField.Element y = zP.invSqrt(x).getWitness();
+            if (y != null) {
+                assertEquals(zP.one(), y.multiply(y).multiply(x));
+                assertEquals(0, y.getValue() & 1);
+            }
+        }));
+    }
+
+    @Test
+    void testReedSolomonOverNttFriendlyField() {
+        SmallPrimeField babyBear = new SmallPrimeField(2013265921, ImmutableList.<BigInteger>builder()
+                .addAll(Collections.nCopies(27, BigInteger.valueOf(2)))
+                .add(BigInteger.valueOf(3), BigInteger.valueOf(5))
+                .build());
+        assertEquals(babyBear.fromLong(31), babyBear.getPrimitiveElement());
+
+        ReedSolomonCode<SmallPrimeField.Element> code = new ReedSolomonCode<>(64, 16, babyBear);
+        List<SmallPrimeField.Element> message = randomElements(babyBear, new Random(1212), 16);
+        List<SmallPrimeField.Element> codeword = code.encode(message);
+
+        assertTrue(code.isValid(codeword));
+        assertEquals(message, code.decode(codeword));
+        assertEquals(codeword, code.interpolate(IntStream.range(20, 36).boxed()
+                .collect(Collectors.toMap(i -> i, codeword::get))));
+    }
+
+    private static List<SmallPrimeField.Element> randomElements(SmallPrimeField field, Random rnd, int n) {
+        return IntStream.range(0, n).mapToObj(i -> field.sampleUniformly(rnd)).collect(Collectors.toList());
+    }
+
+    private static long[] values(List<SmallPrimeField.Element> elements) {
+        return elements.stream().mapToLong(SmallPrimeField.Element::getValue).toArray();
+    }
+}
@@ -2,11 +2,18 @@ package securecompute.algebra.polynomial;
 
 import com.google.common.collect.ImmutableList;
 import org.junit.jupiter.api.Test;
+import securecompute.algebra.BooleanField;
 import securecompute.algebra.IntegerRing;
+import securecompute.constraint.block.BlockConstraint;
 
 import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static securecompute.algebra.polynomial.BasePolynomialExpression.*;
 
 class BasePolynomialExpressionTest {
@@ -48,6 +55,97 @@ class BasePolynomialExpressionTest {
         assertEquals(76, p.evaluate(RING, i -> i == 0 ? 10 : 5).intValue());
     }
 
+    @Test
+    void compiledProgramMatchesEvaluate() {
+        PolynomialExpression<Integer> p = X.add(Y).multiply(X.subtract(Y, RING)).add(_1);
+        PolynomialExpression<Integer> q = Y.add(X).multiply(X.add(Y)).multiply(_1);
+        PolynomialExpression<Integer> r = BasePolynomialExpression.<Integer>sum(ImmutableList.of())
+                .add(product(ImmutableList.of(X, X, _2, Y)));
+        List<PolynomialExpression<Integer>> expressions = ImmutableList.of(p, q, r, X, _3);
+        StraightLineProgram<Integer> program = StraightLineProgram.compile(RING, expressions);
+
+        for (int[] values : new int[][]{{0, 0}, {1, 1}, {0, 1}, {10, 5}, {-3, 7}}) {
+            assertEquals(expressions.stream().map(e -> e.evaluate(RING, i -> values[i])).collect(Collectors.toList()),
+                    program.evaluate(i -> values[i]));
+        }
+        // 2 loads, 5 ops for p, 1 more for q (sharing X + Y) & 3 for r (skipping the additions of 0 & products by 1):
+        assertEquals(11, program.instructionCount());
+    }
+
+    @Test
+    void batchEvaluationMatchesEvaluate() {
+        PolynomialExpression<Integer> p = X.add(Y).multiply(X.subtract(Y, RING)).add(_1);
+        StraightLineProgram<Integer> program = StraightLineProgram.compile(RING, ImmutableList.of(p, _3, Y));
+        List<List<Integer>> inputs = ImmutableList.of(
+                ImmutableList.of(0, 1, 0, 10, -3),
+                ImmutableList.of(0, 1, 1, 5, 7));
+
+        assertEquals(IntStream.range(0, 5)
+                        .mapToObj(j -> program.evaluate(i -> inputs.get(i).get(j)))
+                        .collect(Collectors.toList()),
+                BlockConstraint.transpose(program.evaluateBatch(inputs::get, 5), 5));
+
+        // bit-sliced, over a batch spanning more than one word:
+        Constant<Boolean> one = constant(true);
+        Variable<Boolean> a = variable(0), b = variable(1), c = variable(2);
+        StraightLineProgram<Boolean> booleanProgram = StraightLineProgram.compile(BooleanField.INSTANCE,
+                ImmutableList.of(a.multiply(b).add(c), a.add(one).multiply(b.add(one)).add(c).add(one), one));
+        Random random = new Random(1234);
+        List<List<Boolean>> booleanInputs = Stream.generate(() -> Stream.generate(random::nextBoolean).limit(3)
+                .collect(ImmutableList.toImmutableList())).limit(100).collect(ImmutableList.toImmutableList());
+
+        assertEquals(booleanInputs.stream().map(v -> booleanProgram.evaluate(v::get)).collect(Collectors.toList()),
+                BlockConstraint.transpose(booleanProgram.evaluateBatch(
+                        BlockConstraint.transpose(booleanInputs, 3)::get, 100), 100));
+    }
+
+    @Test
+    void normaliserProducesCanonicalSparseForm() {
+        PolynomialExpressionNormaliser<Integer> normaliser = new PolynomialExpressionNormaliser<>(RING);
+        PolynomialExpression<Integer> p = X.add(Y).multiply(X.subtract(Y, RING)).add(_1);
+        PolynomialExpression<Integer> q = _1.multiply(Y).subtract(X, RING).multiply(_2.add(MINUS_1).multiply(Y).add(X))
+                .subtract(_1.add(_3).multiply(_1).add(MINUS_1.multiply(_2)), RING).multiply(MINUS_1).subtract(_1, RING);
+
+        PolynomialExpression<Integer> expected = sum(ImmutableList.of(_1, product(ImmutableList.of(X, X)),
+                product(ImmutableList.of(MINUS_1, Y, Y))));
+        assertEquals(expected, normaliser.normalise(p));
+        assertSame(normaliser.normalise(p), normaliser.normalise(q));
+        assertEquals(constant(0), normaliser.normalise(X.subtract(X, RING).multiply(Y)));
+        assertEquals(X, normaliser.normalise(sum(ImmutableList.of(product(ImmutableList.of(_1, X))))));
+    }
+
+    @Test
+    void normaliserLeavesLargeProductsUnexpanded() {
+        PolynomialExpressionNormaliser<Integer> normaliser = new PolynomialExpressionNormaliser<>(RING, 2);
+        PolynomialExpression<Integer> p = X.add(Y).multiply(Y.add(X)).add(X.add(Y).multiply(X).multiply(_2));
+        PolynomialExpression<Integer> result = normaliser.normalise(p);
+
+        PolynomialExpression<Integer> xPlusY = sum(ImmutableList.of(X, Y));
+        assertEquals(sum(ImmutableList.of(product(ImmutableList.of(xPlusY, xPlusY)),
+                product(ImmutableList.of(_2, X, X)), product(ImmutableList.of(_2, X, Y)))), result);
+        for (int[] values : new int[][]{{0, 0}, {1, 1}, {0, 1}, {10, 5}, {-3, 7}}) {
+            assertEquals(p.evaluate(RING, i -> values[i]), result.evaluate(RING, i -> values[i]));
+        }
+
+        // constant factors are folded into the coefficient, rather than kept inside the opaque product:
+        assertEquals(product(ImmutableList.of(_3, product(ImmutableList.of(xPlusY, xPlusY)))),
+                normaliser.normalise(_3.multiply(X.add(Y)).multiply(_1.add(_1).subtract(_1, RING)).multiply(Y.add(X))));
+    }
+
+    @Test
+    void normaliserExpandsDeeplyNestedLargeProductsOnce() {
+        PolynomialExpressionNormaliser<Integer> normaliser = new PolynomialExpressionNormaliser<>(RING, 2);
+        BasePolynomialExpression<Integer> p = X;
+        for (int i = 0; i < 40; i++) {
+            p = p.add(Y).multiply(X.add(Y)).add(X); // (each level an over-limit product of the level below)
+        }
+        PolynomialExpression<Integer> result = normaliser.normalise(p);
+
+        for (int[] values : new int[][]{{0, 0}, {1, 0}, {0, 1}, {-1, 1}}) {
+            assertEquals(p.evaluate(RING, i -> values[i]), result.evaluate(RING, i -> values[i]));
+        }
+    }
+
     @Test
     void mapIndicesProducesCorrectResult() {
         PolynomialExpression<Integer> p = X.add(Y).multiply(X.subtract(Y, RING)).add(_1);
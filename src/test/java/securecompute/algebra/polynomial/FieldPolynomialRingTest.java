@@ -1,14 +1,22 @@
 package securecompute.algebra.polynomial;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import securecompute.algebra.BooleanField;
+import securecompute.algebra.EuclideanDomain;
+import securecompute.algebra.Gf256;
+import securecompute.algebra.Gf65536;
 import securecompute.algebra.IntegerRing;
 import securecompute.algebra.QuotientField;
+import securecompute.algebra.SmallPrimeField;
 import securecompute.helper.WithDefaultFieldPolynomialRing;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,6 +46,36 @@ class FieldPolynomialRingTest {
                             polynomial(true, false, false, true).mod(polynomial(true, true)))
             );
         }
+
+        @Test
+        void testHalfGcd() {
+            Random rnd = new Random(9999);
+            for (int i = 0; i < 20; i++) {
+                Polynomial<Boolean> a = polynomial(randomCoefficients(rnd, 200 + i * 37));
+                Polynomial<Boolean> b = polynomial(randomCoefficients(rnd, 150 + i * 53));
+
+                EuclideanDomain.PartialGcdExtResult<Polynomial<Boolean>> expected =
+                        EuclideanDomain.lastPartialGcdExtResult(ring, EuclideanDomain.PartialGcdExtResult.of(
+                                one(), zero(), zero(), one(), a, b, false));
+                assertEquals(expected, ring.lastPartialGcdExtResult(a, b));
+            }
+        }
+
+        @Test
+        void testKaratsubaMultiply() {
+            FieldPolynomialRing<Boolean> karatsubaRing = new FieldPolynomialRing<>(BooleanField.INSTANCE, 2, 3);
+            Random rnd = new Random(2222);
+
+            for (int[] sizes : new int[][]{{2, 2}, {5, 9}, {64, 64}, {100, 7}, {33, 129}}) {
+                List<Boolean> a = randomCoefficients(rnd, sizes[0]), b = randomCoefficients(rnd, sizes[1]);
+                assertEquals(polynomial(a).multiply(polynomial(b)),
+                        karatsubaRing.polynomial(a).multiply(karatsubaRing.polynomial(b)));
+            }
+        }
+
+        private List<Boolean> randomCoefficients(Random rnd, int size) {
+            return IntStream.range(0, size).mapToObj(i -> rnd.nextBoolean()).collect(Collectors.toList());
+        }
     }
 
     @Nested
@@ -63,10 +101,220 @@ class FieldPolynomialRingTest {
             );
         }
 
+        @Test
+        void testToomCookMultiply() {
+            FieldPolynomialRing<QuotientField<Integer>.Coset> toomCookRing =
+                    new FieldPolynomialRing<>(integersMod5, 2, 3);
+            FieldPolynomialRing<QuotientField<Integer>.Coset> schoolbookRing = new FieldPolynomialRing<>(integersMod5,
+                    Integer.MAX_VALUE, Integer.MAX_VALUE);
+            Random rnd = new Random(3333);
+
+            for (int[] sizes : new int[][]{{3, 3}, {7, 8}, {81, 81}, {100, 67}, {10, 200}}) {
+                Polynomial<QuotientField<Integer>.Coset> a = polynomial(rnd.ints(sizes[0], 0, 5).toArray());
+                Polynomial<QuotientField<Integer>.Coset> b = polynomial(rnd.ints(sizes[1], 0, 5).toArray());
+                Polynomial<QuotientField<Integer>.Coset> expected = schoolbookRing.polynomial(a.getCoefficients())
+                        .multiply(schoolbookRing.polynomial(b.getCoefficients()));
+
+                assertEquals(expected.getCoefficients(), toomCookRing.polynomial(a.getCoefficients())
+                        .multiply(toomCookRing.polynomial(b.getCoefficients())).getCoefficients());
+                assertEquals(expected.getCoefficients(), a.multiply(b).getCoefficients());
+            }
+        }
+
         private Polynomial<QuotientField<Integer>.Coset> polynomial(int... coefficients) {
             return Arrays.stream(coefficients)
                     .mapToObj(integersMod5::coset)
                     .collect(Collectors.collectingAndThen(ImmutableList.toImmutableList(), this::polynomial));
         }
     }
+
+    @Nested
+    class SmallPrimePolynomialsTest implements WithDefaultFieldPolynomialRing<SmallPrimeField.Element> {
+        private final SmallPrimeField babyBear = new SmallPrimeField(15 * (1 << 27) + 1);
+        private final FieldPolynomialRing<SmallPrimeField.Element> ring = new FieldPolynomialRing<>(babyBear);
+
+        @Override
+        public IFieldPolynomialRing<SmallPrimeField.Element> getDefaultStructure() {
+            return ring;
+        }
+
+        @Test
+        void testNttMultiply() {
+            FieldPolynomialRing<SmallPrimeField.Element> karatsubaRing = new FieldPolynomialRing<>(babyBear,
+                    16, 96, Integer.MAX_VALUE);
+            Random rnd = new Random(4444);
+            assertEquals(1 << 27, NumberTheoreticTransform.numberTheoreticTransform(babyBear).maxLength());
+
+            for (int[] sizes : new int[][]{{256, 256}, {257, 300}, {300, 1000}, {1024, 1025}, {256, 3000}}) {
+                List<SmallPrimeField.Element> a = randomCoefficients(rnd, sizes[0]);
+                List<SmallPrimeField.Element> b = randomCoefficients(rnd, sizes[1]);
+                assertEquals(karatsubaRing.polynomial(a).multiply(karatsubaRing.polynomial(b)).getCoefficients(),
+                        polynomial(a).multiply(polynomial(b)).getCoefficients());
+            }
+        }
+
+        @Test
+        void testNewtonDivision() {
+            Random rnd = new Random(7777);
+            Polynomial<SmallPrimeField.Element> divisor = polynomial(randomCoefficients(rnd, 300));
+            PolynomialDivider<SmallPrimeField.Element> divider = ring.divider(divisor);
+
+            // quotients both below & above the Newton division threshold, with the cached inverse growing in between:
+            for (int size : new int[]{350, 400, 1000, 700, 3000, 299}) {
+                Polynomial<SmallPrimeField.Element> dividend = polynomial(randomCoefficients(rnd, size));
+                EuclideanDomain.DivModResult<Polynomial<SmallPrimeField.Element>> result = divider.divMod(dividend);
+                assertAll(
+                        () -> assertEquals(Math.max(size - 300, -1), result.getQuotient().getDegree()),
+                        () -> assertTrue(result.getRemainder().getDegree() < 299),
+                        () -> assertEquals(dividend, result.getQuotient().multiply(divisor).add(result.getRemainder())),
+                        () -> assertEquals(result, dividend.divMod(divisor))
+                );
+            }
+        }
+
+        @Test
+        void testHalfGcd() {
+            Random rnd = new Random(8888);
+            for (int[] sizes : new int[][]{{500, 400, 1}, {400, 500, 100}, {1000, 1000, 300}, {700, 65, 5}}) {
+                Polynomial<SmallPrimeField.Element> common = polynomial(randomCoefficients(rnd, sizes[2]));
+                Polynomial<SmallPrimeField.Element> a = polynomial(randomCoefficients(rnd, sizes[0])).multiply(common);
+                Polynomial<SmallPrimeField.Element> b = polynomial(randomCoefficients(rnd, sizes[1])).multiply(common);
+
+                EuclideanDomain.PartialGcdExtResult<Polynomial<SmallPrimeField.Element>> expected =
+                        EuclideanDomain.lastPartialGcdExtResult(ring, EuclideanDomain.PartialGcdExtResult.of(
+                                one(), zero(), zero(), one(), a, b, false));
+                assertEquals(expected, ring.lastPartialGcdExtResult(a, b));
+                assertEquals(sizes[2] - 1, gcd(a, b).getDegree());
+            }
+        }
+
+        @Test
+        void testPartialHalfGcd() {
+            Random rnd = new Random(7777);
+            Polynomial<SmallPrimeField.Element> a = polynomial(randomCoefficients(rnd, 600));
+            Polynomial<SmallPrimeField.Element> b = polynomial(randomCoefficients(rnd, 500));
+
+            for (int degreeBound : new int[]{0, 1, 50, 250, 300, 350, 420, 499, 600}) {
+                EuclideanDomain.PartialGcdExtResult<Polynomial<SmallPrimeField.Element>> expected =
+                        EuclideanDomain.partialGcdExtResults(ring, a, b)
+                                .filter(r -> r.right().getDegree() < degreeBound)
+                                .findFirst().orElseThrow(AssertionError::new);
+                assertEquals(expected, ring.partialGcdExtResult(a, b, degreeBound), "degree bound " + degreeBound);
+            }
+        }
+
+        @Test
+        void testSubproductTree() {
+            Random rnd = new Random(1111);
+            List<SmallPrimeField.Element> points = randomCoefficients(rnd, 200);
+            SubproductTree<SmallPrimeField.Element> tree = new SubproductTree<>(ring, points);
+            Polynomial<SmallPrimeField.Element> p = polynomial(randomCoefficients(rnd, 500));
+
+            List<SmallPrimeField.Element> values = tree.evaluate(p);
+            for (int i = 0; i < points.size(); i++) {
+                SmallPrimeField.Element x = points.get(i), acc = babyBear.zero();
+                for (int j = p.getDegree(); j >= 0; j--) {
+                    acc = babyBear.sum(babyBear.product(acc, x), p.getCoefficients().get(j));
+                }
+                assertEquals(acc, values.get(i));
+            }
+            assertAll(
+                    () -> assertEquals(p.mod(tree.getRootPolynomial()), tree.interpolate(values)),
+                    () -> assertEquals(values, tree.evaluate(tree.interpolate(values)))
+            );
+        }
+
+        @Test
+        void testRoots() {
+            Random rnd = new Random(8888);
+            List<SmallPrimeField.Element> roots = randomCoefficients(rnd, 20);
+            Polynomial<SmallPrimeField.Element> p = new SubproductTree<>(ring, roots).getRootPolynomial();
+            // with a repeated root, and times x^2 - g (for a primitive element g, thus with no square root):
+            p = p.multiply(polynomial(babyBear.negative(roots.get(0)), babyBear.one()));
+            SmallPrimeField.Element g = babyBear.getPrimitiveElement();
+            p = p.multiply(polynomial(babyBear.negative(g), babyBear.zero(), babyBear.one()));
+
+            assertEquals(ImmutableSet.copyOf(roots), ImmutableSet.copyOf(ring.roots(p)));
+            assertEquals(roots.size(), ring.roots(p).size());
+            assertEquals(ImmutableList.of(), ring.roots(one()));
+        }
+
+        private List<SmallPrimeField.Element> randomCoefficients(Random rnd, int size) {
+            return IntStream.range(0, size).mapToObj(i -> babyBear.sampleUniformly(rnd)).collect(Collectors.toList());
+        }
+    }
+
+    @Nested
+    class BinaryFieldPolynomialsTest implements WithDefaultFieldPolynomialRing<Gf65536.Element> {
+        private final Gf256 aesField = new Gf256(0b100011011, 0b11);
+        private final Gf65536 quadraticField = new Gf65536(aesField, 0b100001, 0b1);
+        private final FieldPolynomialRing<Gf65536.Element> ring = new FieldPolynomialRing<>(quadraticField);
+
+        @Override
+        public IFieldPolynomialRing<Gf65536.Element> getDefaultStructure() {
+            return ring;
+        }
+
+        @Test
+        void testAdditiveFftMultiply() {
+            FieldPolynomialRing<Gf65536.Element> karatsubaRing = new FieldPolynomialRing<>(quadraticField,
+                    16, 96, Integer.MAX_VALUE);
+            Random rnd = new Random(5555);
+            assertEquals(1 << 16, AdditiveFft.additiveFft(quadraticField).maxLength());
+
+            for (int[] sizes : new int[][]{{256, 256}, {257, 300}, {300, 1000}, {1024, 1025}, {256, 3000}}) {
+                List<Gf65536.Element> a = randomCoefficients(rnd, sizes[0]);
+                List<Gf65536.Element> b = randomCoefficients(rnd, sizes[1]);
+                assertEquals(karatsubaRing.polynomial(a).multiply(karatsubaRing.polynomial(b)).getCoefficients(),
+                        polynomial(a).multiply(polynomial(b)).getCoefficients());
+            }
+        }
+
+        @Test
+        void testAdditiveFftMultiplyOverGf256() {
+            FieldPolynomialRing<Gf256.Element> karatsubaRing = new FieldPolynomialRing<>(aesField,
+                    16, 96, Integer.MAX_VALUE);
+            FieldPolynomialRing<Gf256.Element> defaultRing = new FieldPolynomialRing<>(aesField);
+            FieldPolynomialRing<Gf256.Element> smallFftRing = new FieldPolynomialRing<>(aesField, 16, 96, 8);
+            Random rnd = new Random(6666);
+            assertEquals(1 << 8, AdditiveFft.additiveFft(aesField).maxLength());
+            // (the default threshold must leave room for the transform to be used at all over this field)
+            assertTrue(2 * PolynomialRing.DEFAULT_ADDITIVE_FFT_THRESHOLD - 1 <= 1 << 8);
+
+            for (int[] sizes : new int[][]{{8, 8}, {9, 20}, {64, 65}, {100, 157}, {128, 129}}) {
+                List<Gf256.Element> a = IntStream.range(0, sizes[0])
+                        .mapToObj(i -> aesField.sampleUniformly(rnd)).collect(Collectors.toList());
+                List<Gf256.Element> b = IntStream.range(0, sizes[1])
+                        .mapToObj(i -> aesField.sampleUniformly(rnd)).collect(Collectors.toList());
+                List<Gf256.Element> expected = karatsubaRing.polynomial(a).multiply(karatsubaRing.polynomial(b))
+                        .getCoefficients();
+                assertEquals(expected, smallFftRing.polynomial(a).multiply(smallFftRing.polynomial(b))
+                        .getCoefficients());
+                assertEquals(expected, defaultRing.polynomial(a).multiply(defaultRing.polynomial(b))
+                        .getCoefficients());
+            }
+        }
+
+        @Test
+        void testRoots() {
+            Random rnd = new Random(9999);
+            List<Gf65536.Element> roots = randomCoefficients(rnd, 20);
+            Polynomial<Gf65536.Element> p = new SubproductTree<>(ring, roots).getRootPolynomial();
+            p = p.multiply(polynomial(roots.get(0), quadraticField.one()));
+
+            assertEquals(ImmutableSet.copyOf(roots), ImmutableSet.copyOf(ring.roots(p)));
+            assertEquals(roots.size(), ring.roots(p).size());
+
+            // over a small field, by exhaustive search:
+            FieldPolynomialRing<Gf256.Element> smallRing = new FieldPolynomialRing<>(aesField);
+            List<Gf256.Element> smallRoots = ImmutableList.of(aesField.zero(), aesField.one(), aesField.element(0x53));
+            assertEquals(ImmutableSet.copyOf(smallRoots), ImmutableSet.copyOf(
+                    smallRing.roots(new SubproductTree<>(smallRing, smallRoots).getRootPolynomial())));
+        }
+
+        private List<Gf65536.Element> randomCoefficients(Random rnd, int size) {
+            return IntStream.range(0, size)
+                    .mapToObj(i -> quadraticField.sampleUniformly(rnd)).collect(Collectors.toList());
+        }
+    }
 }
@@ -4,6 +4,10 @@ import org.junit.jupiter.api.Test;
 import securecompute.algebra.IntegerRing;
 import securecompute.helper.WithDefaultPolynomialRing;
 
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -51,6 +55,23 @@ class PolynomialRingTest implements WithDefaultPolynomialRing<Integer> {
         );
     }
 
+    @Test
+    void testMultiplyLarge() {
+        PolynomialRing<Integer> schoolbookRing = new PolynomialRing<>(IntegerRing.INSTANCE,
+                Integer.MAX_VALUE, Integer.MAX_VALUE);
+        Random rnd = new Random(9876);
+
+        for (int[] sizes : new int[][]{{16, 16}, {17, 40}, {100, 100}, {200, 3}, {57, 300}}) {
+            List<Integer> a = randomCoefficients(rnd, sizes[0]), b = randomCoefficients(rnd, sizes[1]);
+            assertEquals(schoolbookRing.polynomial(a).multiply(schoolbookRing.polynomial(b)).getCoefficients(),
+                    polynomial(a).multiply(polynomial(b)).getCoefficients());
+        }
+    }
+
+    private static List<Integer> randomCoefficients(Random rnd, int size) {
+        return rnd.ints(size, -100, 100).boxed().collect(Collectors.toList());
+    }
+
     @Test
     void testPow() {
         assertAll(
@@ -6,10 +6,14 @@ import org.junit.jupiter.api.Test;
 import securecompute.algebra.BooleanField;
 import securecompute.algebra.Gf256;
 import securecompute.circuit.ArithmeticCircuit.Gate;
+import securecompute.constraint.block.BlockConstraint;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static securecompute.circuit.cryptography.Aes.AES_FIELD;
@@ -65,6 +69,36 @@ public class ArithmeticCircuitTest {
         checkAlgebraicFunction(orNotFn);
     }
 
+    @Test
+    void testWideCircuitEvaluatedByLevel() {
+        int n = 400, k = 4;
+        AlgebraicFunction<Gf256.Element> vectorSumFn = AlgebraicFunction.vectorFn(
+                AlgebraicFunction.sumFn(AES_FIELD, 2), n);
+        ArithmeticCircuit.Builder<Gf256.Element> builder = ArithmeticCircuit.builder(AES_FIELD);
+        Gate<Gf256.Element> g0, g1;
+        builder.addGate(g0 = new ArithmeticCircuit.InputPort<>(AES_FIELD, 2 * n * k))
+                .addGate(g1 = new ArithmeticCircuit.OutputPort<>(AES_FIELD, n * k));
+        for (int i = 0; i < k; i++) {
+            Gate<Gf256.Element> gate = new Gate<>(vectorSumFn, "Sum" + i);
+            builder.addGate(gate)
+                    .addWires(g0, 2 * n * i, gate, 0, 2 * n)
+                    .addWires(gate, 0, g1, n * i, n);
+        }
+        AlgebraicFunction<Gf256.Element> function = builder.build().asFunction();
+        assertTrue(k * vectorSumFn.length() >= CompiledCircuit.PARALLEL_LEVEL_THRESHOLD);
+
+        Random random = new Random(4321);
+        List<Gf256.Element> input = IntStream.range(0, 2 * n * k)
+                .mapToObj(i -> AES_FIELD.sampleUniformly(random))
+                .collect(ImmutableList.toImmutableList());
+        List<Gf256.Element> expectedOutput = IntStream.range(0, n * k)
+                .mapToObj(i -> i % n + 2 * n * (i / n))
+                .map(j -> AES_FIELD.sum(input.get(j), input.get(j + n)))
+                .collect(ImmutableList.toImmutableList());
+
+        assertEquals(expectedOutput, function.apply(input));
+    }
+
     @Test
     void testAddWires() {
         Gate<Gf256.Element> g0, g1;
@@ -85,6 +119,7 @@ public class ArithmeticCircuitTest {
                 function.field().getElements().collect(ImmutableList.toImmutableList())));
 
         List<E> zeroSyndrome = Collections.nCopies(function.parityCheckTerms().size(), function.field().zero());
+        List<List<E>> batch = new ArrayList<>();
 
         for (List<E> inputVector : allTuples) {
             List<E> allSymbols;
@@ -97,6 +132,17 @@ public class ArithmeticCircuitTest {
 
             assertEquals(inputVector, allSymbols.subList(0, function.inputLength()));
             assertEquals(zeroSyndrome, function.parityCheck(allSymbols), inputVector.toString());
+            batch.add(allSymbols);
+            // also include a corrupted vector, for a nonzero syndrome:
+            List<E> corruptedSymbols = new ArrayList<>(allSymbols);
+            int last = corruptedSymbols.size() - 1;
+            corruptedSymbols.set(last, function.field().sum(corruptedSymbols.get(last), function.field().one()));
+            batch.add(corruptedSymbols);
         }
+
+        List<List<E>> syndromes = function.batchParityCheck(BlockConstraint.transpose(batch, function.length()),
+                batch.size());
+        assertEquals(batch.stream().map(function::parityCheck).collect(ImmutableList.toImmutableList()),
+                BlockConstraint.transpose(syndromes, batch.size()));
     }
 }
@@ -14,7 +14,9 @@ import securecompute.circuit.BooleanFunction;
 import java.security.MessageDigest;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -127,6 +129,21 @@ class Sha2Test {
         assertEquals(expectedHex, asHexString(hashBits));
     }
 
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void testBitSlicedRawSha2Step(boolean isWide) {
+        BooleanFunction stepFn = (BooleanFunction) Sha2.rawSha2StepCircuit(isWide).asFunction();
+        Random random = new Random(5678);
+
+        // a batch spanning two bit-sliced groups, the second only partially filled:
+        List<List<Boolean>> inputs = Stream.generate(() -> IntStream.range(0, stepFn.inputLength())
+                .mapToObj(i -> i > 0 && random.nextBoolean())
+                .collect(ImmutableList.toImmutableList())
+        ).limit(70).collect(ImmutableList.toImmutableList());
+
+        assertEquals(inputs.stream().map(stepFn).collect(ImmutableList.toImmutableList()), stepFn.applyBatch(inputs));
+    }
+
     private static List<Boolean> asVector(String hex) {
         byte[] bytes = BaseEncoding.base16().lowerCase().decode(hex.replace(" ", ""));
         return IntStream.range(0, bytes.length * 8)
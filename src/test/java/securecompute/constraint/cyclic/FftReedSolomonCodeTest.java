@@ -0,0 +1,124 @@
+package securecompute.constraint.cyclic;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Streams;
+import org.junit.jupiter.api.Test;
+import securecompute.algebra.FiniteField;
+import securecompute.algebra.Gf256;
+import securecompute.algebra.SmallPrimeField;
+import securecompute.constraint.grid.GridLinearCode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FftReedSolomonCodeTest {
+
+    private static final Gf256 AES_FIELD = new Gf256(0b100011011, 0b11);
+    private static final SmallPrimeField BABY_BEAR = new SmallPrimeField(15 * (1 << 27) + 1);
+
+    @Test
+    void multiplicativeCodeHasExpectedProperties() {
+        checkCode(FftReedSolomonCode.multiplicative(256, 64, BABY_BEAR), new Random(1234));
+    }
+
+    @Test
+    void multiplicativeCosetCodeHasExpectedProperties() {
+        checkCode(FftReedSolomonCode.multiplicative(256, 64, BABY_BEAR, BABY_BEAR.getPrimitiveElement()),
+                new Random(2345));
+    }
+
+    @Test
+    void additiveCodeHasExpectedProperties() {
+        checkCode(FftReedSolomonCode.additive(128, 32, AES_FIELD), new Random(3456));
+    }
+
+    @Test
+    void codeOverDomainOfOnePointHasExpectedProperties() {
+        checkCode(FftReedSolomonCode.multiplicative(1, 1, BABY_BEAR, BABY_BEAR.fromLong(3)), new Random(4567));
+        checkCode(FftReedSolomonCode.additive(1, 1, AES_FIELD), new Random(5678));
+    }
+
+    @Test
+    void invalidParametersThrow() {
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> FftReedSolomonCode.additive(100, 10, AES_FIELD)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> FftReedSolomonCode.additive(512, 10, AES_FIELD)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> FftReedSolomonCode.additive(64, 65, AES_FIELD)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> FftReedSolomonCode.multiplicative(1 << 28, 10, BABY_BEAR)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> FftReedSolomonCode.multiplicative(64, 10, BABY_BEAR, BABY_BEAR.zero()))
+        );
+    }
+
+    @Test
+    void gridOfCodesEncodesToValidCodewords() {
+        GridLinearCode<Gf256.Element, Gf256.Element> gridCode = new GridLinearCode<>(
+                FftReedSolomonCode.additive(64, 16, AES_FIELD), FftReedSolomonCode.additive(32, 8, AES_FIELD));
+        Random rnd = new Random(6789);
+        List<Gf256.Element> message = IntStream.range(0, 16 * 8)
+                .mapToObj(i -> AES_FIELD.sampleUniformly(rnd))
+                .collect(Collectors.toList());
+        List<Gf256.Element> codeword = gridCode.encode(message);
+
+        assertTrue(gridCode.isValid(codeword));
+        assertEquals(message, gridCode.decode(codeword));
+    }
+
+    private static <E> void checkCode(FftReedSolomonCode<E> code, Random rnd) {
+        FiniteField<E> field = code.field();
+        int n = code.length(), k = code.dimension();
+        assertEquals(n, code.points().size());
+        assertEquals(n, code.points().stream().distinct().count());
+        assertEquals(n - k + 1, code.distance());
+
+        List<E> message = randomVector(field, k, rnd);
+        List<E> codeword = code.encode(message);
+        for (int i = 0; i < n; i++) {
+            assertEquals(evaluate(field, message, code.points().get(i)), codeword.get(i));
+        }
+        assertTrue(code.isValid(codeword));
+        assertEquals(message, code.decode(codeword));
+
+        if (k < n) {
+            List<E> corrupted = new ArrayList<>(codeword);
+            corrupted.set(n / 2, field.sum(corrupted.get(n / 2), field.one()));
+            assertFalse(code.isValid(corrupted));
+        }
+
+        List<E> otherCodeword = code.encode(randomVector(field, k, rnd));
+        List<E> pairwiseProduct = Streams.zip(codeword.stream(), otherCodeword.stream(), field::product)
+                .collect(ImmutableList.toImmutableList());
+        assertTrue(code.pow(2).isValid(pairwiseProduct));
+        assertSame(code.pow(2), code.pow(2));
+
+        if (n > 1 && k >= 2) {
+            Map<Integer, E> knownSymbols = ImmutableSortedMap.of(0, codeword.get(0), n - 1, codeword.get(n - 1));
+            List<E> interpolated = code.interpolate(knownSymbols);
+            assertTrue(code.isValid(interpolated));
+            knownSymbols.forEach((i, x) -> assertEquals(x, interpolated.get(i)));
+        }
+    }
+
+    private static <E> List<E> randomVector(FiniteField<E> field, int length, Random rnd) {
+        return IntStream.range(0, length).mapToObj(i -> field.sampleUniformly(rnd)).collect(Collectors.toList());
+    }
+
+    private static <E> E evaluate(FiniteField<E> field, List<E> coefficients, E x) {
+        E acc = field.zero();
+        for (int i = coefficients.size() - 1; i >= 0; i--) {
+            acc = field.sum(field.product(acc, x), coefficients.get(i));
+        }
+        return acc;
+    }
+}
@@ -1,5 +1,6 @@
 package securecompute.constraint.cyclic;
 
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.*;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -9,6 +10,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import securecompute.algebra.FiniteField;
 import securecompute.algebra.Gf256;
 import securecompute.algebra.Gf65536;
+import securecompute.circuit.cryptography.Aes;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -17,6 +19,8 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
@@ -118,6 +122,96 @@ class ReedSolomonCodeTest<E> {
         Assertions.assertTrue(code.pow(2).isValid(pairwiseProduct));
     }
 
+    @ParamTest
+    void correctFixesErrorsAndErasures(List<E> message) {
+        List<E> codeword = code.encode(message);
+        Random rnd = new Random(message.hashCode());
+        List<Integer> indices = IntStream.range(0, n).boxed().collect(Collectors.toList());
+        Collections.shuffle(indices, rnd);
+
+        // 200 erasures leave room to correct (n - k - 200) / 2 = 350 errors:
+        List<E> received = new ArrayList<>(codeword);
+        indices.subList(0, 200).forEach(i -> received.set(i, null));
+        indices.subList(200, 550).forEach(i -> received.set(i, code.field().sum(received.get(i), code.field().one())));
+
+        assertEquals(codeword, code.correct(received));
+        assertEquals(message, code.decode(code.correct(received)));
+
+        indices.subList(200, n - k + 1).forEach(i -> received.set(i, null));
+        assertThrows(IllegalArgumentException.class, () -> code.correct(received));
+    }
+
+    @Test
+    void listCorrectionFindsCodewordsBeyondUniqueDecodingRadius() {
+        ReedSolomonCode<Gf256.Element> smallCode = new ReedSolomonCode<>(64, 8, AES_FIELD);
+        assertEquals(39, smallCode.listDecodingRadius(2));
+        assertEquals(40, smallCode.listDecodingRadius(3));
+
+        Random rnd = new Random(2345);
+        List<Gf256.Element> codeword = smallCode.encode(IntStream.range(0, 8)
+                .mapToObj(i -> AES_FIELD.sampleUniformly(rnd))
+                .collect(Collectors.toList()));
+        List<Integer> indices = IntStream.range(0, 64).boxed().collect(Collectors.toList());
+        Collections.shuffle(indices, rnd);
+
+        // 39 errors, far beyond the unique decoding radius of 28:
+        List<Gf256.Element> received = new ArrayList<>(codeword);
+        indices.subList(0, 39).forEach(i -> received.set(i, AES_FIELD.sum(received.get(i), AES_FIELD.exp(i))));
+        assertThrows(IllegalArgumentException.class, () -> smallCode.correct(received));
+        List<List<Gf256.Element>> list = smallCode.listCorrect(received, 2);
+        assertTrue(list.contains(codeword));
+        for (List<Gf256.Element> c : list) {
+            assertTrue(smallCode.isValid(c));
+            assertTrue(IntStream.range(0, 64).filter(i -> !c.get(i).equals(received.get(i))).count() <= 39);
+        }
+
+        // erasing 4 of those leaves 35 errors, within the radius of 37 for length 60 & multiplicity 3:
+        indices.subList(0, 4).forEach(i -> received.set(i, null));
+        assertTrue(smallCode.listCorrect(received, 3).contains(codeword));
+    }
+
+    @Test
+    void parityMatrixEncodingGivesValidCodewords() {
+        Random rnd = new Random(3456);
+        // (small enough codes to encode by a precomputed matrix, with and without the raw byte fast path)
+        checkParityMatrixEncoding(new ReedSolomonCode<>(255, 85, AES_FIELD), rnd);
+        checkParityMatrixEncoding(new ReedSolomonCode<>(300, 100, QUADRATIC_FIELD), rnd);
+    }
+
+    private static <T> void checkParityMatrixEncoding(ReedSolomonCode<T> c, Random rnd) {
+        assertTrue((long) c.dimension() * (c.length() - c.dimension())
+                <= PuncturedPolynomialCode.PARITY_MATRIX_THRESHOLD);
+        for (int trial = 0; trial < 5; trial++) {
+            List<T> message = IntStream.range(0, c.dimension())
+                    .mapToObj(i -> c.field().sampleUniformly(rnd))
+                    .collect(Collectors.toList());
+            List<T> codeword = c.encode(message);
+            assertTrue(c.isValid(codeword));
+            assertEquals(message, c.decode(codeword));
+        }
+    }
+
+    @Test
+    void staticFactoryReturnsCanonicalCodes() {
+        Gf256 field = new Gf256(0b100011011, 0b11);
+        CacheStats statsBefore = ReedSolomonCode.cacheStats();
+        ReedSolomonCode<Gf256.Element> code1 = ReedSolomonCode.of(100, 20, field);
+        ReedSolomonCode<Gf256.Element> code2 = ReedSolomonCode.of(100, 20, field);
+        CacheStats stats = ReedSolomonCode.cacheStats().minus(statsBefore);
+
+        assertSame(code1, code2);
+        assertEquals(field, code1.field());
+        assertSame(code1.pow(2), code2.pow(2));
+        assertSame(ReedSolomonCode.of(100, 39, field), code1.pow(2));
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+
+        // equal but distinct fields share the same codes:
+        assertSame(code1, ReedSolomonCode.of(100, 20, Aes.AES_FIELD));
+        assertSame(code1, ReedSolomonCode.of(100, 20, new Gf256(0b100011011, 0b11)));
+        assertThrows(IllegalArgumentException.class, () -> ReedSolomonCode.of(256, 20, field));
+    }
+
     @Test
     void codeIsUnshortened() {
         assertEquals(0, code.shortenNumber());
@@ -134,5 +228,18 @@ class ReedSolomonCodeTest<E> {
         Assertions.assertTrue(innerCode.isValid(codeword));
     }
 
+    @ParamTest
+    void interpolationFromManySymbolsRecoversCodeword(List<E> message) {
+        List<E> codeword = code.encode(message);
+        Random rnd = new Random(message.hashCode());
+        SortedSet<Integer> knownSymbolIndices = new TreeSet<>();
+        while (knownSymbolIndices.size() < k) {
+            knownSymbolIndices.add(rnd.nextInt(n));
+        }
+        List<E> knownSymbols = knownSymbolIndices.stream().map(codeword::get).collect(Collectors.toList());
+
+        assertEquals(codeword, code.interpolationFn(knownSymbolIndices).apply(knownSymbols));
+    }
+
     // TODO: Consider adding test that X^(n+1) div (X - g^i) shift -1 is a codeword _only_ for 0 <= i < k.
 }